@@ -3,7 +3,7 @@ from dotenv import load_dotenv
 import os
 import time
 import pandas as pd
-from io import StringIO
+import pyarrow as pa
 
 load_dotenv()
 
@@ -135,13 +135,13 @@ def add_match_data_to_db():
     time.sleep(0.5)
 
 def get_training_data():
-  # fetch via requests so we can send our header
-  url = f"{API_BASE}/matches/csv/all"
+  # fetch via requests so we can send our header; the Arrow stream arrives typed, no text parsing
+  url = f"{API_BASE}/matches/arrow/all"
   res = requests.get(url, headers=BACKEND_HEADERS)
   res.raise_for_status()
 
-  df = pd.read_csv(StringIO(res.text))
-  df.drop(df.columns[[0,1,3]], axis=1, inplace=True)
+  df = pa.ipc.open_stream(res.content).read_pandas()
+  df.drop(columns=["puuid", "matchId", "championId", "gameStartTimestamp"], inplace=True)
   df.to_csv("training_dataset.csv", index=False)
   
 # add_match_data_to_db()
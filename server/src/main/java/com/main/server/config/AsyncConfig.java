@@ -1,21 +0,0 @@
-package com.main.server.config;
-
-import java.util.concurrent.Executor;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-@Configuration
-public class AsyncConfig {
-  @Bean(name="riotTaskExecutor")
-  public Executor taskExecutor(){
-    ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
-    exec.setCorePoolSize(2);
-    exec.setMaxPoolSize(4);
-    exec.setQueueCapacity(50);
-    exec.setThreadNamePrefix("riot-async-");
-    exec.initialize();
-    return exec;
-  }
-}
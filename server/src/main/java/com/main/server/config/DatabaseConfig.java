@@ -4,9 +4,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
 
@@ -16,7 +16,8 @@ import javax.sql.DataSource;
  * 
  * This config pulls PostgreSQL connection credentials from environment variables
  * or a Spring-supported properties source and registers `DataSource` and `JdbcTemplate`
- * beans for use throughout the application.
+ * beans for use throughout the application. The data source is a Hikari connection pool;
+ * JPA repositories pick up the same bean, so JDBC and JPA share one set of connections.
  */
 @Configuration
 public class DatabaseConfig {
@@ -30,20 +31,85 @@ public class DatabaseConfig {
   @Value("${spring.datasource.password}")
   private String dbPassword;
 
+  @Value("${db.pool.max-size:10}")
+  private int maxPoolSize;
+
+  @Value("${db.pool.min-idle:2}")
+  private int minIdle;
+
+  @Value("${db.pool.connection-timeout-ms:10000}")
+  private long connectionTimeoutMs;
+
+  @Value("${db.pool.idle-timeout-ms:300000}")
+  private long idleTimeoutMs;
+
+  @Value("${db.pool.max-lifetime-ms:1500000}")
+  private long maxLifetimeMs;
+
+  @Value("${db.pool.keepalive-ms:120000}")
+  private long keepaliveMs;
+
+  @Value("${db.pool.validation-timeout-ms:3000}")
+  private long validationTimeoutMs;
+
+  @Value("${db.pool.leak-detection-ms:30000}")
+  private long leakDetectionMs;
+
+  @Value("${db.pool.prepare-threshold:5}")
+  private int prepareThreshold;
+
+  @Value("${db.pool.statement-cache-queries:256}")
+  private int statementCacheQueries;
+
+  @Value("${db.pool.statement-cache-mib:5}")
+  private int statementCacheMiB;
+
+  @Value("${db.pool.rewrite-batched-inserts:true}")
+  private boolean rewriteBatchedInserts;
 
   /**
-   * Initializes the {@link DataSource} bean using PostgreSQL connection properties.
-   *
-   * @return configured {@link DataSource} for JDBC use
+   * Pool metrics, filled in by Hikari and exposed on {@code /health/db}.
    */
   @Bean
-  public DataSource dataSource() {
-    DriverManagerDataSource dataSource = new DriverManagerDataSource();
-    dataSource.setDriverClassName("org.postgresql.Driver");
-    dataSource.setUrl(dbUrl);
-    dataSource.setUsername(dbUser);
-    dataSource.setPassword(dbPassword);
-    return dataSource;
+  public DatabasePoolMetrics databasePoolMetrics() {
+    return new DatabasePoolMetrics();
+  }
+
+  /**
+   * Initializes the pooled {@link DataSource} bean using PostgreSQL connection properties.
+   *
+   * Connections are validated with the JDBC4 {@code isValid} check when borrowed and kept alive while
+   * idle, and are retired before Supabase's idle/lifetime limits close them. Prepared statements are
+   * cached per connection by pgjdbc; set {@code db.pool.prepare-threshold=0} when connecting through
+   * a transaction-mode pooler (e.g. Supabase's port 6543), which cannot keep server-side statements.
+   * JDBC batches of {@code INSERT}s are rewritten into multi-row inserts by the driver.
+   *
+   * @param metrics collector registered on the pool
+   * @return configured {@link DataSource} for JDBC and JPA use
+   */
+  @Bean(destroyMethod = "close")
+  public DataSource dataSource(DatabasePoolMetrics metrics) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("main-db");
+    config.setDriverClassName("org.postgresql.Driver");
+    config.setJdbcUrl(dbUrl);
+    config.setUsername(dbUser);
+    config.setPassword(dbPassword);
+    config.setMaximumPoolSize(maxPoolSize);
+    config.setMinimumIdle(minIdle);
+    config.setConnectionTimeout(connectionTimeoutMs);
+    config.setIdleTimeout(idleTimeoutMs);
+    config.setMaxLifetime(maxLifetimeMs);
+    config.setKeepaliveTime(keepaliveMs);
+    config.setValidationTimeout(validationTimeoutMs);
+    config.setLeakDetectionThreshold(leakDetectionMs);
+    config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+    config.addDataSourceProperty("preparedStatementCacheQueries", statementCacheQueries);
+    config.addDataSourceProperty("preparedStatementCacheSizeMiB", statementCacheMiB);
+    config.addDataSourceProperty("reWriteBatchedInserts", rewriteBatchedInserts);
+    config.addDataSourceProperty("tcpKeepAlive", true);
+    config.setMetricsTrackerFactory(metrics);
+    return new HikariDataSource(config);
   }
 
   /**
@@ -0,0 +1,91 @@
+package com.main.server.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collects connection pool metrics from Hikari: pool occupancy (active, idle, threads waiting) and how
+ * long callers wait for a connection and then hold it. Registered on the pool by {@link DatabaseConfig}
+ * and read by the {@code /health/db} endpoint.
+ */
+public class DatabasePoolMetrics implements MetricsTrackerFactory {
+  private volatile PoolStats poolStats;
+  private final Timer wait = new Timer();
+  private final Timer usage = new Timer();
+  private final LongAdder created = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    this.poolStats = poolStats;
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        created.increment();
+      }
+
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        wait.record(elapsedAcquiredNanos);
+      }
+
+      @Override
+      public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeouts.increment();
+      }
+    };
+  }
+
+  /**
+   * Current pool occupancy plus wait and usage times since startup.
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    PoolStats pool = poolStats;
+    if (pool != null) {
+      out.put("active", pool.getActiveConnections());
+      out.put("idle", pool.getIdleConnections());
+      out.put("total", pool.getTotalConnections());
+      out.put("max", pool.getMaxConnections());
+      out.put("threadsWaiting", pool.getPendingThreads());
+    }
+    out.put("connectionsCreated", created.sum());
+    out.put("acquireTimeouts", timeouts.sum());
+    out.put("wait", wait.stats());
+    out.put("usage", usage.stats());
+    return out;
+  }
+
+  private static final class Timer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    Map<String, Object> stats() {
+      long n = count.sum();
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("count", n);
+      m.put("meanMs", n == 0 ? 0.0 : Math.round(totalNanos.sum() / (double) n / 1e4) / 100.0);
+      m.put("maxMs", Math.round(maxNanos.get() / 1e4) / 100.0);
+      return m;
+    }
+  }
+}
@@ -1,25 +1,33 @@
 package com.main.server.controller;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.main.server.model.Match;
+import com.main.server.export.MatchArrowExporter;
+import com.main.server.export.MatchCsvExporter;
 import com.main.server.model.Player;
 import com.main.server.model.PlayerBuild;
 import com.main.server.model.RankInfo;
 import com.main.server.repository.PlayerBuildRepository;
+import com.main.server.riot.RiotPriority;
+import com.main.server.service.BackfillService;
 import com.main.server.service.DatabaseService;
+import com.main.server.service.IngestJobWorker;
 import com.main.server.service.ItemDto;
 import com.main.server.service.ItemService;
 import com.main.server.service.OptimalBuildService;
 import com.main.server.service.RiotService;
+import com.main.server.stats.WinrateCron;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
@@ -34,7 +42,7 @@ import jakarta.servlet.http.HttpServletResponse;
  * This controller exposes endpoints to:
  * - Fetch a Riot user's info via Riot ID and tagline
  * - Upsert users into the database
- * - Cache recent match data in the background
+ * - Queue recent and older match data for background caching
  * - Fetch cached match data
  */
 @RestController
@@ -46,18 +54,28 @@ public class Controller {
   private final PlayerBuildRepository buildRepo;
   private final ItemService itemService;
   private final OptimalBuildService optimalBuildService;
+  private final IngestJobWorker ingestJobWorker;
+  private final BackfillService backfillService;
+  private final MatchCsvExporter csvExporter;
+  private final MatchArrowExporter arrowExporter;
+  private final WinrateCron winrateCron;
 
   private final Bucket bucket;
 
   @Value("${spring.api.backend.key}")
   private String backendApiKey;
 
-  public Controller(DatabaseService databaseService, RiotService accountService, PlayerBuildRepository buildRepo, ItemService itemService, OptimalBuildService optimalBuildService){
+  public Controller(DatabaseService databaseService, RiotService accountService, PlayerBuildRepository buildRepo, ItemService itemService, OptimalBuildService optimalBuildService, IngestJobWorker ingestJobWorker, BackfillService backfillService, MatchCsvExporter csvExporter, MatchArrowExporter arrowExporter, WinrateCron winrateCron){
     this.databaseService = databaseService;
     this.accountService = accountService;
     this.buildRepo = buildRepo;
     this.itemService = itemService;
     this.optimalBuildService = optimalBuildService;
+    this.ingestJobWorker = ingestJobWorker;
+    this.backfillService = backfillService;
+    this.csvExporter = csvExporter;
+    this.arrowExporter = arrowExporter;
+    this.winrateCron = winrateCron;
     Bandwidth limit = Bandwidth.classic(3600, Refill.greedy(3600, Duration.ofMinutes(1)));
     Bandwidth perSecond = Bandwidth.classic(60, Refill.greedy(60, Duration.ofSeconds(1)));
     this.bucket = Bucket.builder()
@@ -75,6 +93,26 @@ public class Controller {
     String headerKey = request.getHeader("X-API-KEY");
     return headerKey != null && headerKey.equals(backendApiKey);
   }
+
+  /**
+   * Maps a failed Riot lookup to an error response carrying the underlying error message:
+   * 404 when Riot reported the account as missing, 503 (with {@code Retry-After}) while the Riot
+   * region is unavailable, 500 otherwise.
+   * @param e the failure raised by the future chain
+   * @return error response for the client
+   */
+  private ResponseEntity<?> errorResponse(Throwable e) {
+    Throwable cause = RiotService.unwrap(e);
+    if (cause instanceof RiotService.RiotUnavailableException unavailable) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header("Retry-After", Long.toString(Math.max(1, unavailable.retryAfterMs() / 1000)))
+        .body(Map.of("error", String.valueOf(cause.getMessage())));
+    }
+    if (cause instanceof RiotService.RiotApiException api && api.status() == 404) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", String.valueOf(cause.getMessage())));
+    }
+    return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(cause.getMessage())));
+  }
   /**
    * Fetches a Riot user by game name and tagline using the Riot API.
    *
@@ -83,19 +121,14 @@ public class Controller {
    * @return {@link Player} object containing user info or error message on failure
    */
   @GetMapping("/{riotId}/{tagLine}/{region}")
-  public ResponseEntity<?> getUser(@PathVariable String riotId, @PathVariable String tagLine, @PathVariable String region, HttpServletRequest request) {
-    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
-    try {
-      if (bucket.tryConsume(1)){
-        Player user = accountService.getUserById(riotId, tagLine, region);
-        return ResponseEntity.ok(user);
-      }
-      else{
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
-      }
-    } catch (Exception e) {
-      return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+  public CompletableFuture<ResponseEntity<?>> getUser(@PathVariable String riotId, @PathVariable String tagLine, @PathVariable String region, HttpServletRequest request) {
+    if (!isAuthorized(request)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized"));
+    if (!bucket.tryConsume(1)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
     }
+    return accountService.getUserById(riotId, tagLine, region)
+      .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+      .exceptionally(this::errorResponse);
   }
 
   /**
@@ -105,19 +138,14 @@ public class Controller {
    * @return {@link Player} object containing user info or error message on failure
    */
   @GetMapping("/lookup/{puuid}/{region}")
-  public ResponseEntity<?> getUserByPuuid(@PathVariable String puuid, @PathVariable String region, HttpServletRequest request) {
-    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
-    try {
-      if (bucket.tryConsume(1)){
-        Player user = accountService.getUserByPuuid(puuid, region);
-        return ResponseEntity.ok(user);
-      }
-      else{
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
-      }
-    } catch (Exception e) {
-      return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+  public CompletableFuture<ResponseEntity<?>> getUserByPuuid(@PathVariable String puuid, @PathVariable String region, HttpServletRequest request) {
+    if (!isAuthorized(request)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized"));
+    if (!bucket.tryConsume(1)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
     }
+    return accountService.getUserByPuuid(puuid, region)
+      .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+      .exceptionally(this::errorResponse);
   }
 
   /**
@@ -176,7 +204,7 @@ public class Controller {
    * Performs a full account + match sync:
    *  Fetches Riot account info via Riot API
    *  Upserts the user in the Supabase DB
-   *  Triggers match caching for the 20 most recent ranked matches
+   *  Triggers match caching for ranked matches played since the last sync (the 20 most recent on first search)
    * 
    *
    * @param riotId the Riot game name
@@ -184,31 +212,32 @@ public class Controller {
    * @return the upserted user or error message
    */
   @GetMapping("/search/{riotId}/{tagLine}/{platformRegion}/{routingRegion}")
-  public ResponseEntity<?> searchAndCache(@PathVariable String riotId, @PathVariable String tagLine, @PathVariable String platformRegion, @PathVariable String routingRegion, HttpServletRequest request) {
-    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
-    try {
-      if (bucket.tryConsume(1)){
-        Player user = accountService.getCompletePlayer(riotId, tagLine, platformRegion, routingRegion);
+  public CompletableFuture<ResponseEntity<?>> searchAndCache(@PathVariable String riotId, @PathVariable String tagLine, @PathVariable String platformRegion, @PathVariable String routingRegion, HttpServletRequest request) {
+    if (!isAuthorized(request)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized"));
+    if (!bucket.tryConsume(1)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+    return accountService.getCompletePlayer(riotId, tagLine, platformRegion, routingRegion)
+      .thenCompose(user -> {
         Player existing = databaseService.findByPuuid(user.getPuuid());
         if (existing == null) {
           databaseService.saveUser(user);
         } else {
           databaseService.updateUser(user);
         }
-        List<RankInfo> rankInfos = accountService.getRankInfoByPuuid(user.getPuuid(), platformRegion);
-        for (RankInfo rankInfo : rankInfos){
-          accountService.saveRankInfo(rankInfo);
-        }
-        List<String> ids = accountService.getRecentMatchIds(user.getPuuid(), "ranked", routingRegion, 20);
-        accountService.cacheMissingMatchesAsync(ids, user.getPuuid(), routingRegion);
-        return ResponseEntity.ok(user);
-      }
-      else{
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
-      }
-    } catch (Exception e) {
-      return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
-    }
+        // rank entries and match IDs only depend on the PUUID, so fetch them concurrently
+        CompletableFuture<List<RankInfo>> ranks = accountService.getRankInfoByPuuid(user.getPuuid(), platformRegion);
+        CompletableFuture<List<String>> ids = accountService.getNewMatchIds(user.getPuuid(), routingRegion);
+        return ranks.thenCombine(ids, (rankInfos, matchIds) -> {
+          for (RankInfo rankInfo : rankInfos){
+            accountService.saveRankInfo(rankInfo);
+          }
+          ingestJobWorker.enqueueNewMatches(user.getPuuid(), routingRegion, matchIds);
+          return user;
+        });
+      })
+      .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+      .exceptionally(this::errorResponse);
   }
 
   /**
@@ -234,6 +263,104 @@ public class Controller {
   }
   
 
+  /**
+   * Pages through a player's cached matches, newest first. Pages are keyed by a cursor rather than an
+   * offset, so deep pages cost the same as the first one.
+   *
+   * @param puuid the PUUID of the player
+   * @param fields comma-separated match fields to return (e.g. {@code championName,kills,win}); all if omitted
+   * @param cursor {@code nextCursor} from the previous page; omitted for the first page
+   * @param since only matches that started after this epoch-millis timestamp, for polling new games
+   * @param limit page size (at most 100)
+   * @return the matches and the cursor of the next page ({@code null} on the last page)
+   */
+  @GetMapping("/matches/{puuid}/page")
+  public ResponseEntity<?> getMatchPage(@PathVariable String puuid,
+                                        @RequestParam(required = false) List<String> fields,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Long since,
+                                        @RequestParam(defaultValue = "20") int limit,
+                                        HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    if (!bucket.tryConsume(1)) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+    }
+    try {
+      return ResponseEntity.ok(accountService.getMatchPage(puuid, fields == null ? List.of() : fields, cursor, since, limit));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+  }
+
+  /**
+   * Queues caching of the next page of older ranked matches for a player who has already been synced.
+   *
+   * @param puuid the PUUID of the player
+   * @param routingRegion region to fetch the matches from
+   * @return 202 once the page is queued
+   */
+  @PostMapping("/matches/history/{puuid}/{routingRegion}")
+  public ResponseEntity<?> syncOlderMatches(@PathVariable String puuid, @PathVariable String routingRegion, HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    if (!bucket.tryConsume(1)) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+    }
+    ingestJobWorker.enqueueOlderMatches(puuid, routingRegion);
+    return ResponseEntity.accepted().body(Map.of("puuid", puuid, "status", "queued"));
+  }
+
+  /**
+   * Starts re-parsing every match in the raw match store into the database, bulk loaded in one pass.
+   *
+   * @param replace overwrite rows that already exist (e.g. after a parser fix) instead of keeping them
+   * @return 202 once started, 409 if a re-parse is already running or the raw store is disabled
+   */
+  @PostMapping("/admin/reparse")
+  public ResponseEntity<?> reparseStoredMatches(@RequestParam(defaultValue = "false") boolean replace, HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    if (!backfillService.startReparse(replace)) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(backfillService.stats());
+    }
+    return ResponseEntity.accepted().body(backfillService.stats());
+  }
+
+  /**
+   * Starts a full rebuild of the champion item winrates, published in one transaction once complete.
+   *
+   * @return 202 once started, 409 if a rebuild is already running
+   */
+  @PostMapping("/admin/winrates/rebuild")
+  public ResponseEntity<?> rebuildWinrates(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    if (!winrateCron.startRebuild()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(winrateCron.stats());
+    }
+    return ResponseEntity.accepted().body(winrateCron.stats());
+  }
+
+  /**
+   * Returns the per-minute gold, xp and CS series of a match, downloading its timeline on first use.
+   *
+   * @param matchId the Riot match ID
+   * @param routingRegion region to fetch the timeline from
+   * @param puuid optional; limits the response to that participant
+   * @return one series object per participant
+   */
+  @GetMapping("/timeline/{matchId}/{routingRegion}")
+  public CompletableFuture<ResponseEntity<?>> getTimeline(@PathVariable String matchId, @PathVariable String routingRegion, @RequestParam(required = false) String puuid, HttpServletRequest request) {
+    if (!isAuthorized(request)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized"));
+    if (!bucket.tryConsume(1)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+    return accountService.getTimeline(matchId, routingRegion, RiotPriority.INTERACTIVE)
+      .thenApply(timelines -> puuid == null ? timelines
+        : timelines.stream().filter(t -> puuid.equals(t.getPuuid())).toList())
+      .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+      .exceptionally(this::errorResponse);
+  }
+
   /**
    * 
    * Fetches cached matches for a user and outputs a csv file with the match data. (For ML Model)
@@ -241,35 +368,18 @@ public class Controller {
    * @param response csv file response
    */
   @GetMapping(value="/matches/csv/{puuid}", produces = "text/csv")
-  public void downloadMatchCsv(@PathVariable String puuid, HttpServletResponse response, HttpServletRequest request){
+  public void downloadMatchCsv(@PathVariable String puuid, HttpServletResponse response, HttpServletRequest request) throws IOException {
     if (!isAuthorized(request)) {
       response.setStatus(HttpStatus.UNAUTHORIZED.value());
       return;
     }
-    try {
-      if (bucket.tryConsume(1)){
-        List<Match> matches = accountService.getCachedMatches(puuid);
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=match_history.csv");
-        PrintWriter writer = response.getWriter();
-        writer.println("puuid,matchId,championName,championId,teamPosition,win,kills,deaths,assists,goldEarned,goldSpent,csPerMin,kda,visionScore,wardsPlaced,wardsKilled,damageDealtToChampions,totalDamageTaken,gameMode,queueId,gameDuration,totalMinionsKilled,neutralMinionsKilled,turretTakedowns,inhibitorTakedowns");
-        for (Match m : matches) {
-          writer.printf("%s,%s,%s,%s,%s,%b,%d,%d,%d,%d,%d,%.15f,%.15f,%d,%d,%d,%d,%d,%s,%d,%d,%d,%d,%d,%d\n",
-            m.getPuuid(), m.getMatchId(), m.getChampionName(), m.getChampionId(), m.getTeamPosition(), m.isWin(),
-            m.getKills(), m.getDeaths(), m.getAssists(), m.getGoldEarned(), m.getGoldSpent(), m.getCsPerMin(),
-            m.getKda(), m.getVisionScore(), m.getWardsPlaced(), m.getWardsKilled(), m.getDamageDealtToChampions(),
-            m.getTotalDamageTaken(), m.getGameMode(), m.getQueueId(), m.getGameDuration(), m.getTotalMinionsKilled(),
-            m.getNeutralMinionsKilled(), m.getTurretTakedowns(), m.getInhibitorTakedowns());
-        }
-        writer.flush();
-      }
-      else{
-        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-      }
-    } catch (Exception e) {
-      response.setStatus(500);
+    if (!bucket.tryConsume(1)) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      return;
     }
+    streamCsv(puuid, "match_history.csv", request, response);
   }
+
   
   /**
    * Exports all cached matches across all users as a CSV file (for ML model training).
@@ -277,34 +387,74 @@ public class Controller {
    * @param response HttpServletResponse used to stream CSV data
    */
   @GetMapping(value = "/matches/csv/all", produces = "text/csv")
-  public void downloadAllMatchesCsv(HttpServletResponse response, HttpServletRequest request) {
+  public void downloadAllMatchesCsv(HttpServletResponse response, HttpServletRequest request) throws IOException {
     if (!isAuthorized(request)) {
       response.setStatus(HttpStatus.UNAUTHORIZED.value());
       return;
     }
-    try {
-      if (bucket.tryConsume(1)){
-        List<Match> matches = accountService.getAllMatches(); 
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=training_dataset.csv");
-        PrintWriter writer = response.getWriter();
-        writer.println("puuid,matchId,championName,championId,teamPosition,win,kills,deaths,assists,goldEarned,goldSpent,csPerMin,kda,visionScore,wardsPlaced,wardsKilled,damageDealtToChampions,totalDamageTaken,gameMode,queueId,gameDuration,totalMinionsKilled,neutralMinionsKilled,turretTakedowns,inhibitorTakedowns");
-        for (Match m : matches) {
-          writer.printf("%s,%s,%s,%s,%s,%b,%d,%d,%d,%d,%d,%.15f,%.15f,%d,%d,%d,%d,%d,%s,%d,%d,%d,%d,%d,%d\n",
-            m.getPuuid(), m.getMatchId(), m.getChampionName(), m.getChampionId(), m.getTeamPosition(), m.isWin(),
-            m.getKills(), m.getDeaths(), m.getAssists(), m.getGoldEarned(), m.getGoldSpent(), m.getCsPerMin(),
-            m.getKda(), m.getVisionScore(), m.getWardsPlaced(), m.getWardsKilled(), m.getDamageDealtToChampions(),
-            m.getTotalDamageTaken(), m.getGameMode(), m.getQueueId(), m.getGameDuration(), m.getTotalMinionsKilled(),
-            m.getNeutralMinionsKilled(), m.getTurretTakedowns(), m.getInhibitorTakedowns());
-        }
-        writer.flush();
-      }
-      else{
-        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-      }
-    } catch (Exception e) {
-      response.setStatus(500);
+    if (!bucket.tryConsume(1)) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      return;
     }
+    streamCsv(null, "training_dataset.csv", request, response);
+  }
+
+
+  /**
+   * Exports cached matches as an Arrow IPC stream with typed columns (for ML model training).
+   *
+   * @param puuid the PUUID of the player, or {@code all} for every match
+   * @param builds also include each participant's final items as {@code item0..item6}
+   * @param response HttpServletResponse used to stream the Arrow data
+   */
+  @GetMapping(value = "/matches/arrow/{puuid}", produces = MatchArrowExporter.CONTENT_TYPE)
+  public void downloadMatchesArrow(@PathVariable String puuid, @RequestParam(defaultValue = "false") boolean builds,
+                                   HttpServletResponse response, HttpServletRequest request) throws IOException {
+    if (!isAuthorized(request)) {
+      response.setStatus(HttpStatus.UNAUTHORIZED.value());
+      return;
+    }
+    if (!bucket.tryConsume(1)) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      return;
+    }
+    String filename = puuid.equals("all") ? "training_dataset.arrows" : "match_history.arrows";
+    OutputStream out = openDownload(MatchArrowExporter.CONTENT_TYPE, filename, request, response);
+    arrowExporter.export(puuid.equals("all") ? null : puuid, builds, out);
+    // closed only on success; see streamCsv
+    out.close();
+  }
+
+
+  /**
+   * Streams matches as CSV straight from a database cursor (see {@link #openDownload}). A failure after
+   * the download started propagates, so the container aborts the connection rather than ending the
+   * response as if the file were complete.
+   *
+   * @param puuid    only this player's matches, or {@code null} for all of them
+   * @param filename download name offered to the client
+   */
+  private void streamCsv(String puuid, String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    csvExporter.export(puuid, openDownload("text/csv;charset=UTF-8", filename, request, response));
+  }
+
+  /**
+   * Prepares a streamed file download, gzip-compressed when the client accepts it. No content length
+   * is known up front, so the response goes out chunked as it is written.
+   *
+   * @return the stream to write the file to; closing it completes the response
+   */
+  private OutputStream openDownload(String contentType, String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType(contentType);
+    response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+    OutputStream out = response.getOutputStream();
+    String acceptEncoding = request.getHeader("Accept-Encoding");
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      response.setHeader("Content-Encoding", "gzip");
+      response.setHeader("Vary", "Accept-Encoding");
+      out = new GZIPOutputStream(out, 64 * 1024, true);
+    }
+    return out;
   }
 
 
@@ -314,19 +464,14 @@ public class Controller {
    * @return A List of their rank infos.
    */
   @GetMapping("/rank/{puuid}/{region}")
-  public ResponseEntity<?> getRankInfo(@PathVariable String puuid, @PathVariable String region, HttpServletRequest request) {
-    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
-    try {
-      if (bucket.tryConsume(1)){
-        return ResponseEntity.ok(accountService.getRankInfoByPuuid(puuid, region));
-      }
-      else{
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
-      }
-      
-    } catch (Exception e) {
-      return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+  public CompletableFuture<ResponseEntity<?>> getRankInfo(@PathVariable String puuid, @PathVariable String region, HttpServletRequest request) {
+    if (!isAuthorized(request)) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized"));
+    if (!bucket.tryConsume(1)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
     }
+    return accountService.getRankInfoByPuuid(puuid, region)
+      .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+      .exceptionally(this::errorResponse);
   }
 
   /**
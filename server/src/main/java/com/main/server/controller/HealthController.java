@@ -1,13 +1,124 @@
 package com.main.server.controller;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.main.server.config.DatabasePoolMetrics;
+import com.main.server.crawler.LadderCrawler;
+import com.main.server.repository.IngestJobRepository;
+import com.main.server.riot.RiotCircuitBreaker;
+import com.main.server.riot.RiotRequestScheduler;
+import com.main.server.service.BackfillService;
+import com.main.server.stats.WinrateAggregator;
+import com.main.server.stats.WinrateCron;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Liveness probe plus internal queue, pool and job state. Only {@code /health} is public; the detail
+ * endpoints require the same {@code X-API-KEY} as the {@code /user} API.
+ */
 @RestController
 public class HealthController {
+  private final RiotRequestScheduler riotScheduler;
+  private final IngestJobRepository ingestJobs;
+  private final LadderCrawler crawler;
+  private final RiotCircuitBreaker circuitBreaker;
+  private final DatabasePoolMetrics dbPool;
+  private final BackfillService backfill;
+  private final WinrateAggregator winrates;
+  private final WinrateCron winrateCron;
+
+  @Value("${spring.api.backend.key}")
+  private String backendApiKey;
+
+  public HealthController(RiotRequestScheduler riotScheduler, IngestJobRepository ingestJobs, LadderCrawler crawler, RiotCircuitBreaker circuitBreaker, DatabasePoolMetrics dbPool, BackfillService backfill, WinrateAggregator winrates, WinrateCron winrateCron) {
+    this.riotScheduler = riotScheduler;
+    this.circuitBreaker = circuitBreaker;
+    this.dbPool = dbPool;
+    this.backfill = backfill;
+    this.winrates = winrates;
+    this.winrateCron = winrateCron;
+    this.ingestJobs = ingestJobs;
+    this.crawler = crawler;
+  }
+
   @GetMapping("/health")
   public ResponseEntity<String> health() {
     return ResponseEntity.ok("OK");
   }
-}
\ No newline at end of file
+
+  private boolean isAuthorized(HttpServletRequest request){
+    String headerKey = request.getHeader("X-API-KEY");
+    return headerKey != null && headerKey.equals(backendApiKey);
+  }
+
+  /**
+   * Queue depth and wait time of each Riot request class.
+   */
+  @GetMapping("/health/riot")
+  public ResponseEntity<?> riot(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(riotScheduler.stats());
+  }
+
+  /**
+   * Circuit breaker state per Riot region.
+   */
+  @GetMapping("/health/riot/circuits")
+  public ResponseEntity<?> riotCircuits(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(circuitBreaker.stats());
+  }
+
+  /**
+   * Number of ingestion jobs per status (queued, running, failed).
+   */
+  @GetMapping("/health/jobs")
+  public ResponseEntity<?> jobs(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(ingestJobs.countByStatus());
+  }
+
+  /**
+   * Ladder crawler progress and throughput.
+   */
+  @GetMapping("/health/crawler")
+  public ResponseEntity<?> crawler(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(crawler.stats());
+  }
+
+  /**
+   * Database connection pool occupancy and connection wait times.
+   */
+  @GetMapping("/health/db")
+  public ResponseEntity<?> db(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(dbPool.stats());
+  }
+
+  /**
+   * Progress of the current or last re-parse of the raw match store.
+   */
+  @GetMapping("/health/backfill")
+  public ResponseEntity<?> backfill(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(backfill.stats());
+  }
+
+  /**
+   * Progress of the incremental champion item winrate merge, and duration and row counts of the last
+   * full rebuild.
+   */
+  @GetMapping("/health/winrates")
+  public ResponseEntity<?> winrates(HttpServletRequest request) {
+    if (!isAuthorized(request)) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
+    return ResponseEntity.ok(Map.of("merge", winrates.stats(), "rebuild", winrateCron.stats()));
+  }
+}
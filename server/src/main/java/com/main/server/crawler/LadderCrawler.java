@@ -0,0 +1,272 @@
+package com.main.server.crawler;
+
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.main.server.model.Match;
+import com.main.server.repository.RankRepository;
+import com.main.server.riot.RiotPriority;
+import com.main.server.service.MatchParser;
+import com.main.server.service.RiotService;
+import com.main.server.store.FingerprintSet;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Grows the match dataset without waiting for players to be searched.
+ *
+ * Seeds from {@code rank_info}/{@code players}, then walks the ladder breadth-first: for each player
+ * it lists their recent ranked matches, stores every participant of each unseen match and queues the
+ * co-participants it has not visited yet. All Riot calls go through the shared scheduler at
+ * {@link RiotPriority#BULK}, so the crawler only ever uses the part of the rate budget that
+ * interactive lookups and sync jobs leave free. It runs between {@code riot.crawler.start-hour} and
+ * {@code riot.crawler.end-hour} (server time), when that spare budget is largest.
+ *
+ * Seen match IDs and players are kept in memory only, in bounded {@link FingerprintSet}s
+ * ({@code riot.crawler.seen-matches}/{@code riot.crawler.seen-players}), so the oldest entries are
+ * forgotten night after night instead of growing the heap; a forgotten player may be visited again.
+ * A match only counts as seen once it has been stored, so one that failed is tried again when another
+ * player lists it. Downloaded matches are stored on the crawler's own {@code riot.crawler.store-threads}
+ * threads rather than on the HTTP client's.
+ * A restart starts a fresh walk, and matches already in the raw store are served from disk instead of
+ * being downloaded again.
+ */
+@Component
+public class LadderCrawler {
+  private static final Logger logger = LoggerFactory.getLogger(LadderCrawler.class);
+
+  private final RiotService riotService;
+  private final RankRepository rankRepository;
+  private final boolean enabled;
+  private final String region;
+  private final int startHour;
+  private final int endHour;
+  private final int idsPerPlayer;
+  private final int seedLimit;
+  private final int maxInFlight;
+
+  private final FingerprintSet seenMatches;
+  private final FingerprintSet seenPlayers;
+  private final Set<String> downloading = ConcurrentHashMap.newKeySet();
+  private final ExecutorService storeExecutor;
+  private final LinkedBlockingQueue<String> frontier;
+  private final AtomicLong matchesStored = new AtomicLong();
+  private final AtomicLong playersVisited = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+
+  private volatile Thread worker;
+  private volatile double matchesPerMinute;
+  private long lastReportCount;
+  private long lastReportAt = System.nanoTime();
+
+  public LadderCrawler(
+      RiotService riotService,
+      RankRepository rankRepository,
+      @Value("${riot.crawler.enabled:false}") boolean enabled,
+      @Value("${riot.crawler.routing-region:americas}") String region,
+      @Value("${riot.crawler.start-hour:1}") int startHour,
+      @Value("${riot.crawler.end-hour:7}") int endHour,
+      @Value("${riot.crawler.ids-per-player:20}") int idsPerPlayer,
+      @Value("${riot.crawler.seed-limit:500}") int seedLimit,
+      @Value("${riot.crawler.max-frontier:100000}") int maxFrontier,
+      @Value("${riot.crawler.max-in-flight:8}") int maxInFlight,
+      @Value("${riot.crawler.seen-matches:500000}") int seenMatchesCapacity,
+      @Value("${riot.crawler.seen-players:200000}") int seenPlayersCapacity,
+      @Value("${riot.crawler.store-threads:2}") int storeThreads) {
+    this.riotService = riotService;
+    this.rankRepository = rankRepository;
+    this.enabled = enabled;
+    this.region = region;
+    this.startHour = startHour;
+    this.endHour = endHour;
+    this.idsPerPlayer = idsPerPlayer;
+    this.seedLimit = seedLimit;
+    this.maxInFlight = maxInFlight;
+    this.frontier = new LinkedBlockingQueue<>(maxFrontier);
+    this.seenMatches = new FingerprintSet(seenMatchesCapacity);
+    this.seenPlayers = new FingerprintSet(seenPlayersCapacity);
+    AtomicInteger n = new AtomicInteger();
+    this.storeExecutor = Executors.newFixedThreadPool(storeThreads, r -> {
+      Thread t = new Thread(r, "ladder-crawler-store-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Starts the crawl when the window opens, and logs throughput while it runs. The crawl loop stops
+   * on its own once the window closes.
+   */
+  @Scheduled(fixedDelayString = "${riot.crawler.report-interval-ms:60000}")
+  public synchronized void tick() {
+    if (!enabled) {
+      return;
+    }
+    report();
+    if (inWindow(LocalTime.now().getHour()) && (worker == null || !worker.isAlive())) {
+      worker = new Thread(this::crawl, "ladder-crawler");
+      worker.setDaemon(true);
+      worker.start();
+      logger.info("Ladder crawler started for {} ({}:00-{}:00)", region, startHour, endHour);
+    }
+  }
+
+  private void crawl() {
+    Semaphore permits = new Semaphore(maxInFlight);
+    try {
+      while (!Thread.currentThread().isInterrupted() && inWindow(LocalTime.now().getHour())) {
+        String puuid = frontier.poll();
+        if (puuid == null) {
+          if (permits.availablePermits() < maxInFlight) {
+            // downloads still in flight may add co-participants
+            TimeUnit.MILLISECONDS.sleep(500);
+            continue;
+          }
+          if (seed() == 0) {
+            logger.info("Ladder crawler has no players left to visit");
+            break;
+          }
+          continue;
+        }
+        visit(puuid, permits);
+      }
+      permits.acquire(maxInFlight);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    logger.info("Ladder crawler stopped: {} matches stored, {} players visited", matchesStored.get(), playersVisited.get());
+  }
+
+  private void visit(String puuid, Semaphore permits) throws InterruptedException {
+    playersVisited.incrementAndGet();
+    List<String> ids;
+    try {
+      ids = riotService.getMatchIds(puuid, "ranked", region, idsPerPlayer, null, null, RiotPriority.BULK).get();
+    } catch (Exception e) {
+      failures.incrementAndGet();
+      logger.debug("Crawler failed to list matches for {}: {}", puuid, RiotService.unwrap(e).getMessage());
+      return;
+    }
+    for (String id : ids) {
+      long fingerprint = FingerprintSet.fingerprint(id);
+      // two players listing the same match must not download it twice at once
+      if (seenMatches.contains(fingerprint) || !downloading.add(id)) {
+        continue;
+      }
+      permits.acquire();
+      riotService.getMatchById(id, region, RiotPriority.BULK)
+        .thenAcceptAsync(json -> {
+          try {
+            MatchParser.Result parsed = riotService.cacheAllParticipants(json);
+            seenMatches.add(fingerprint);
+            matchesStored.incrementAndGet();
+            for (Match m : parsed.getMatches()) {
+              enqueue(m.getPuuid());
+            }
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }, storeExecutor)
+        .whenComplete((ignored, err) -> {
+          downloading.remove(id);
+          permits.release();
+          if (err != null) {
+            failures.incrementAndGet();
+            logger.debug("Crawler failed to store match {}: {}", id, RiotService.unwrap(err).getMessage());
+          }
+        });
+    }
+  }
+
+  private int seed() {
+    int added = 0;
+    for (String puuid : rankRepository.findSeedPuuids(seedLimit)) {
+      if (enqueue(puuid)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Queues a player that has not been seen yet. The player is only marked seen once the bounded
+   * frontier accepted it, so one dropped while the frontier was full can still be queued later.
+   */
+  private boolean enqueue(String puuid) {
+    long fingerprint = FingerprintSet.fingerprint(puuid);
+    synchronized (seenPlayers) {
+      if (seenPlayers.contains(fingerprint) || !frontier.offer(puuid)) {
+        return false;
+      }
+      seenPlayers.add(fingerprint);
+      return true;
+    }
+  }
+
+  private boolean inWindow(int hour) {
+    if (startHour == endHour) {
+      return true;
+    }
+    return startHour < endHour
+      ? hour >= startHour && hour < endHour
+      : hour >= startHour || hour < endHour;
+  }
+
+  private void report() {
+    long now = System.nanoTime();
+    long count = matchesStored.get();
+    double minutes = (now - lastReportAt) / 60e9;
+    if (minutes > 0) {
+      matchesPerMinute = (count - lastReportCount) / minutes;
+    }
+    lastReportCount = count;
+    lastReportAt = now;
+    if (worker != null && worker.isAlive()) {
+      logger.info("Ladder crawler: {} matches/min, {} stored, {} players visited, {} queued, {} failures",
+        String.format("%.1f", matchesPerMinute), count, playersVisited.get(), frontier.size(), failures.get());
+    }
+  }
+
+  /**
+   * Crawl progress, e.g. for the health endpoint.
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("enabled", enabled);
+    out.put("running", worker != null && worker.isAlive());
+    out.put("region", region);
+    out.put("matchesPerMinute", Math.round(matchesPerMinute * 10) / 10.0);
+    out.put("matchesStored", matchesStored.get());
+    out.put("playersVisited", playersVisited.get());
+    out.put("frontier", frontier.size());
+    out.put("seenMatches", seenMatches.size());
+    out.put("failures", failures.get());
+    return out;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    Thread t = worker;
+    if (t != null) {
+      t.interrupt();
+    }
+    storeExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,57 @@
+package com.main.server.export;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line Arrow export, for retraining without going through the HTTP endpoint:
+ *
+ * <pre>
+ * java -jar server.jar --spring.main.web-application-type=none --export-arrow=training_dataset.arrows [--export-builds]
+ * </pre>
+ *
+ * Writes every match to the given file and exits. Without {@code --export-arrow} this does nothing.
+ */
+@Component
+public class ArrowExportJob implements ApplicationRunner {
+  private static final Logger logger = LoggerFactory.getLogger(ArrowExportJob.class);
+
+  private final MatchArrowExporter exporter;
+  private final ConfigurableApplicationContext context;
+
+  public ArrowExportJob(MatchArrowExporter exporter, ConfigurableApplicationContext context) {
+    this.exporter = exporter;
+    this.context = context;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (!args.containsOption("export-arrow")) {
+      return;
+    }
+    Path target = Path.of(args.getOptionValues("export-arrow").get(0));
+    boolean withBuilds = args.containsOption("export-builds");
+    int status = 0;
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16)) {
+      long rows = exporter.export(null, withBuilds, out);
+      logger.info("Wrote {} matches to {}", rows, target.toAbsolutePath());
+    } catch (Exception e) {
+      logger.error("Arrow export to {} failed: {}", target, e.getMessage(), e);
+      // a partial stream would still be readable, so do not leave one behind
+      Files.deleteIfExists(target);
+      status = 1;
+    }
+    int exitCode = status;
+    System.exit(SpringApplication.exit(context, () -> exitCode));
+  }
+}
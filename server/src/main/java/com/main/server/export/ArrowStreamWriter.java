@@ -0,0 +1,452 @@
+package com.main.server.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.flatbuf.Bool;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.DictionaryBatch;
+import org.apache.arrow.flatbuf.DictionaryEncoding;
+import org.apache.arrow.flatbuf.Field;
+import org.apache.arrow.flatbuf.FieldNode;
+import org.apache.arrow.flatbuf.FloatingPoint;
+import org.apache.arrow.flatbuf.Int;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.MetadataVersion;
+import org.apache.arrow.flatbuf.Precision;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.apache.arrow.flatbuf.Utf8;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+
+/**
+ * Writes rows as an Apache Arrow IPC stream (readable with {@code pyarrow.ipc.open_stream}).
+ *
+ * Values are appended row by row into per-column buffers on the heap; every {@code batchRows} rows
+ * they are written out as one record batch and reset, so memory is bounded by the batch size. String
+ * columns declared {@link ColumnType#DICTIONARY_UTF8} are written as int32 indices into a dictionary;
+ * values first seen in a batch are sent as a delta dictionary batch right before it.
+ *
+ * Only the message metadata uses the Arrow flatbuffer schema classes; buffers are laid out here, so
+ * no Arrow allocator (and none of its JVM flags) is needed.
+ */
+public class ArrowStreamWriter implements AutoCloseable {
+  public enum ColumnType { UTF8, DICTIONARY_UTF8, INT32, INT64, FLOAT64, BOOL }
+
+  public record Column(String name, ColumnType type) {}
+
+  private static final byte[] CONTINUATION = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+  private static final byte[] PADDING = new byte[8];
+
+  private final OutputStream out;
+  private final List<Column> columns;
+  private final int batchRows;
+  private final ColumnBuffer[] buffers;
+  private final Dictionary[] dictionaries;
+  private int rows;
+  private long totalRows;
+  private boolean schemaWritten;
+
+  public ArrowStreamWriter(OutputStream out, List<Column> columns, int batchRows) {
+    this.out = out;
+    this.columns = List.copyOf(columns);
+    this.batchRows = batchRows;
+    this.buffers = new ColumnBuffer[columns.size()];
+    this.dictionaries = new Dictionary[columns.size()];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new ColumnBuffer(columns.get(i).type());
+      if (columns.get(i).type() == ColumnType.DICTIONARY_UTF8) {
+        dictionaries[i] = new Dictionary(i);
+      }
+    }
+  }
+
+  public void writeString(int column, String value) {
+    ColumnBuffer c = buffers[column];
+    if (value == null) {
+      writeNull(column);
+      return;
+    }
+    c.valid(rows);
+    if (dictionaries[column] != null) {
+      c.values.putInt(dictionaries[column].indexOf(value));
+    } else {
+      c.data.putBytes(value.getBytes(StandardCharsets.UTF_8));
+      c.values.putInt(c.data.size);
+    }
+  }
+
+  public void writeInt(int column, int value) {
+    buffers[column].valid(rows);
+    buffers[column].values.putInt(value);
+  }
+
+  public void writeLong(int column, long value) {
+    buffers[column].valid(rows);
+    buffers[column].values.putLong(value);
+  }
+
+  public void writeDouble(int column, double value) {
+    buffers[column].valid(rows);
+    buffers[column].values.putLong(Double.doubleToRawLongBits(value));
+  }
+
+  public void writeBool(int column, boolean value) {
+    ColumnBuffer c = buffers[column];
+    c.valid(rows);
+    if (value) {
+      c.values.setBit(rows);
+    }
+  }
+
+  /**
+   * Marks the current row's value as null; the validity bit stays unset.
+   */
+  public void writeNull(int column) {
+    ColumnBuffer c = buffers[column];
+    c.nullCount++;
+    switch (c.type) {
+      case UTF8 -> c.values.putInt(c.data.size);
+      case DICTIONARY_UTF8, INT32 -> c.values.putInt(0);
+      case INT64, FLOAT64 -> c.values.putLong(0);
+      case BOOL -> { }
+    }
+  }
+
+  /**
+   * Completes the current row; every column must have been written exactly once.
+   */
+  public void endRow() throws IOException {
+    rows++;
+    totalRows++;
+    if (rows == batchRows) {
+      flushBatch();
+    }
+  }
+
+  public long rows() {
+    return totalRows;
+  }
+
+  /**
+   * Writes any buffered rows and the end-of-stream marker. Does not close the underlying stream.
+   */
+  @Override
+  public void close() throws IOException {
+    if (rows > 0 || !schemaWritten) {
+      flushBatch();
+    }
+    out.write(CONTINUATION);
+    out.write(PADDING, 0, 4);
+    out.flush();
+  }
+
+  private void flushBatch() throws IOException {
+    if (!schemaWritten) {
+      writeSchema();
+      schemaWritten = true;
+    }
+    for (Dictionary d : dictionaries) {
+      if (d != null && d.hasPending()) {
+        d.writeDelta();
+      }
+    }
+    if (rows == 0) {
+      return;
+    }
+    List<long[]> nodes = new ArrayList<>();
+    List<Bytes> body = new ArrayList<>();
+    for (ColumnBuffer c : buffers) {
+      nodes.add(new long[] {rows, c.nullCount});
+      c.appendTo(body, rows);
+    }
+    writeRecordBatch(MessageHeader.RecordBatch, -1, false, rows, nodes, body);
+    for (ColumnBuffer c : buffers) {
+      c.reset();
+    }
+    rows = 0;
+    out.flush();
+  }
+
+  private void writeSchema() throws IOException {
+    FlatBufferBuilder b = new FlatBufferBuilder(1024);
+    int[] fields = new int[columns.size()];
+    for (int i = 0; i < fields.length; i++) {
+      Column column = columns.get(i);
+      int name = b.createString(column.name());
+      byte typeType;
+      int type;
+      switch (column.type()) {
+        case UTF8, DICTIONARY_UTF8 -> {
+          Utf8.startUtf8(b);
+          type = Utf8.endUtf8(b);
+          typeType = Type.Utf8;
+        }
+        case INT32 -> {
+          type = Int.createInt(b, 32, true);
+          typeType = Type.Int;
+        }
+        case INT64 -> {
+          type = Int.createInt(b, 64, true);
+          typeType = Type.Int;
+        }
+        case FLOAT64 -> {
+          type = FloatingPoint.createFloatingPoint(b, Precision.DOUBLE);
+          typeType = Type.FloatingPoint;
+        }
+        case BOOL -> {
+          Bool.startBool(b);
+          type = Bool.endBool(b);
+          typeType = Type.Bool;
+        }
+        default -> throw new IllegalStateException(column.type().name());
+      }
+      int dictionary = 0;
+      if (column.type() == ColumnType.DICTIONARY_UTF8) {
+        int indexType = Int.createInt(b, 32, true);
+        DictionaryEncoding.startDictionaryEncoding(b);
+        DictionaryEncoding.addId(b, i);
+        DictionaryEncoding.addIndexType(b, indexType);
+        dictionary = DictionaryEncoding.endDictionaryEncoding(b);
+      }
+      int children = Field.createChildrenVector(b, new int[0]);
+      Field.startField(b);
+      Field.addName(b, name);
+      Field.addNullable(b, true);
+      Field.addTypeType(b, typeType);
+      Field.addType(b, type);
+      if (dictionary != 0) {
+        Field.addDictionary(b, dictionary);
+      }
+      Field.addChildren(b, children);
+      fields[i] = Field.endField(b);
+    }
+    int fieldVector = Schema.createFieldsVector(b, fields);
+    Schema.startSchema(b);
+    Schema.addFields(b, fieldVector);
+    int schema = Schema.endSchema(b);
+    writeMessage(b, MessageHeader.Schema, schema, List.of());
+  }
+
+  /**
+   * Writes a record batch, or a dictionary batch wrapping one when {@code headerType} says so.
+   */
+  private void writeRecordBatch(byte headerType, long dictionaryId, boolean delta, long length,
+                                List<long[]> nodes, List<Bytes> body) throws IOException {
+    FlatBufferBuilder b = new FlatBufferBuilder(256);
+    RecordBatch.startNodesVector(b, nodes.size());
+    for (int i = nodes.size() - 1; i >= 0; i--) {
+      FieldNode.createFieldNode(b, nodes.get(i)[0], nodes.get(i)[1]);
+    }
+    int nodeVector = b.endVector();
+    RecordBatch.startBuffersVector(b, body.size());
+    long[] offsets = new long[body.size()];
+    long offset = 0;
+    for (int i = 0; i < body.size(); i++) {
+      offsets[i] = offset;
+      offset += padded(body.get(i).size);
+    }
+    for (int i = body.size() - 1; i >= 0; i--) {
+      Buffer.createBuffer(b, offsets[i], body.get(i).size);
+    }
+    int bufferVector = b.endVector();
+    RecordBatch.startRecordBatch(b);
+    RecordBatch.addLength(b, length);
+    RecordBatch.addNodes(b, nodeVector);
+    RecordBatch.addBuffers(b, bufferVector);
+    int header = RecordBatch.endRecordBatch(b);
+    if (headerType == MessageHeader.DictionaryBatch) {
+      header = DictionaryBatch.createDictionaryBatch(b, dictionaryId, header, delta);
+    }
+    writeMessage(b, headerType, header, body);
+  }
+
+  /**
+   * Encapsulated message: continuation marker, metadata length, flatbuffer padded to 8 bytes, body.
+   */
+  private void writeMessage(FlatBufferBuilder b, byte headerType, int header, List<Bytes> body) throws IOException {
+    long bodyLength = 0;
+    for (Bytes buf : body) {
+      bodyLength += padded(buf.size);
+    }
+    int message = Message.createMessage(b, MetadataVersion.V5, headerType, header, bodyLength, 0);
+    b.finish(message);
+    byte[] metadata = b.sizedByteArray();
+    int metadataLength = (int) padded(metadata.length + 8) - 8;
+
+    out.write(CONTINUATION);
+    writeIntLe(metadataLength);
+    out.write(metadata);
+    out.write(PADDING, 0, metadataLength - metadata.length);
+    for (Bytes buf : body) {
+      out.write(buf.data, 0, buf.size);
+      out.write(PADDING, 0, (int) (padded(buf.size) - buf.size));
+    }
+  }
+
+  private void writeIntLe(int v) throws IOException {
+    out.write(v);
+    out.write(v >>> 8);
+    out.write(v >>> 16);
+    out.write(v >>> 24);
+  }
+
+  private static long padded(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  /**
+   * Buffers of one column for the current batch.
+   */
+  private static final class ColumnBuffer {
+    final ColumnType type;
+    final Bytes validity = new Bytes();
+    /** Values, dictionary indices, or string end offsets (the leading 0 is added on write). */
+    final Bytes values = new Bytes();
+    final Bytes data = new Bytes();
+    int nullCount;
+
+    ColumnBuffer(ColumnType type) {
+      this.type = type;
+    }
+
+    void valid(int row) {
+      validity.setBit(row);
+    }
+
+    void appendTo(List<Bytes> body, int rows) {
+      validity.ensureBits(rows);
+      body.add(validity);
+      if (type == ColumnType.BOOL) {
+        values.ensureBits(rows);
+      }
+      if (type == ColumnType.UTF8) {
+        Bytes offsets = new Bytes();
+        offsets.putInt(0);
+        offsets.putBytes(values.data, values.size);
+        body.add(offsets);
+        body.add(data);
+      } else {
+        body.add(values);
+      }
+    }
+
+    void reset() {
+      validity.clear();
+      values.clear();
+      data.clear();
+      nullCount = 0;
+    }
+  }
+
+  /**
+   * Values of one dictionary-encoded column; indices stay stable for the whole stream.
+   */
+  private final class Dictionary {
+    final int id;
+    final Map<String, Integer> indices = new HashMap<>();
+    final List<String> pending = new ArrayList<>();
+    boolean sent;
+
+    Dictionary(int id) {
+      this.id = id;
+    }
+
+    int indexOf(String value) {
+      Integer index = indices.get(value);
+      if (index == null) {
+        index = indices.size();
+        indices.put(value, index);
+        pending.add(value);
+      }
+      return index;
+    }
+
+    boolean hasPending() {
+      return !pending.isEmpty() || !sent;
+    }
+
+    void writeDelta() throws IOException {
+      ColumnBuffer c = new ColumnBuffer(ColumnType.UTF8);
+      for (int i = 0; i < pending.size(); i++) {
+        c.valid(i);
+        c.data.putBytes(pending.get(i).getBytes(StandardCharsets.UTF_8));
+        c.values.putInt(c.data.size);
+      }
+      List<Bytes> body = new ArrayList<>();
+      c.appendTo(body, pending.size());
+      List<long[]> nodes = new ArrayList<>();
+      nodes.add(new long[] {pending.size(), 0});
+      writeRecordBatch(MessageHeader.DictionaryBatch, id, sent, pending.size(), nodes, body);
+      pending.clear();
+      sent = true;
+    }
+  }
+
+  /**
+   * Growable little-endian byte buffer.
+   */
+  private static final class Bytes {
+    byte[] data = new byte[256];
+    int size;
+
+    void putInt(int v) {
+      ensure(size + 4);
+      data[size++] = (byte) v;
+      data[size++] = (byte) (v >>> 8);
+      data[size++] = (byte) (v >>> 16);
+      data[size++] = (byte) (v >>> 24);
+    }
+
+    void putLong(long v) {
+      ensure(size + 8);
+      for (int i = 0; i < 8; i++) {
+        data[size++] = (byte) (v >>> (8 * i));
+      }
+    }
+
+    void putBytes(byte[] bytes) {
+      putBytes(bytes, bytes.length);
+    }
+
+    void putBytes(byte[] bytes, int length) {
+      ensure(size + length);
+      System.arraycopy(bytes, 0, data, size, length);
+      size += length;
+    }
+
+    /** Sets bit {@code index} (LSB first), growing the buffer to cover it. */
+    void setBit(int index) {
+      ensureBits(index + 1);
+      data[index >>> 3] |= (byte) (1 << (index & 7));
+    }
+
+    void ensureBits(int bits) {
+      int bytes = (bits + 7) >>> 3;
+      if (bytes > size) {
+        ensure(bytes);
+        size = bytes;
+      }
+    }
+
+    void clear() {
+      Arrays.fill(data, 0, size, (byte) 0);
+      size = 0;
+    }
+
+    private void ensure(int capacity) {
+      if (capacity > data.length) {
+        data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.main.server.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal CSV encoder that writes UTF-8 straight into a reusable byte buffer.
+ *
+ * Numbers are formatted digit by digit and ASCII strings are copied char by char, so a row costs no
+ * allocations apart from doubles and non-ASCII text. Fields containing a comma, quote or line break
+ * are quoted per RFC 4180. Not thread-safe; use one writer per export.
+ */
+public class CsvWriter implements AutoCloseable {
+  private final OutputStream out;
+  private final byte[] buf;
+  private int pos;
+  private boolean rowStarted;
+
+  public CsvWriter(OutputStream out, int bufferSize) {
+    this.out = out;
+    this.buf = new byte[Math.max(bufferSize, 64)];
+  }
+
+  public CsvWriter field(String value) throws IOException {
+    separator();
+    if (value == null) {
+      return this;
+    }
+    int len = value.length();
+    boolean ascii = true;
+    boolean quote = false;
+    for (int i = 0; i < len; i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+        quote = true;
+      } else if (c >= 0x7F || c < 0x20) {
+        ascii = false;
+      }
+    }
+    if (ascii && !quote) {
+      for (int i = 0; i < len; i++) {
+        put((byte) value.charAt(i));
+      }
+      return this;
+    }
+    String escaped = quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    for (byte b : escaped.getBytes(StandardCharsets.UTF_8)) {
+      put(b);
+    }
+    return this;
+  }
+
+  public CsvWriter field(long value) throws IOException {
+    separator();
+    if (value == Long.MIN_VALUE) {
+      // cannot be negated
+      for (byte b : Long.toString(value).getBytes(StandardCharsets.US_ASCII)) {
+        put(b);
+      }
+      return this;
+    }
+    if (value < 0) {
+      put((byte) '-');
+      value = -value;
+    }
+    ensure(20);
+    int start = pos;
+    do {
+      buf[pos++] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    // digits were written least significant first
+    for (int i = start, j = pos - 1; i < j; i++, j--) {
+      byte t = buf[i];
+      buf[i] = buf[j];
+      buf[j] = t;
+    }
+    return this;
+  }
+
+  public CsvWriter field(boolean value) throws IOException {
+    separator();
+    String s = value ? "true" : "false";
+    for (int i = 0; i < s.length(); i++) {
+      put((byte) s.charAt(i));
+    }
+    return this;
+  }
+
+  /**
+   * Writes the shortest representation that parses back to the same double.
+   */
+  public CsvWriter field(double value) throws IOException {
+    separator();
+    String s = Double.toString(value);
+    for (int i = 0; i < s.length(); i++) {
+      put((byte) s.charAt(i));
+    }
+    return this;
+  }
+
+  public void endRow() throws IOException {
+    put((byte) '\n');
+    rowStarted = false;
+  }
+
+  /**
+   * Sends everything buffered so far downstream.
+   */
+  public void flush() throws IOException {
+    drain();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    drain();
+    out.close();
+  }
+
+  private void separator() throws IOException {
+    if (rowStarted) {
+      put((byte) ',');
+    }
+    rowStarted = true;
+  }
+
+  private void put(byte b) throws IOException {
+    if (pos == buf.length) {
+      drain();
+    }
+    buf[pos++] = b;
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buf.length - pos < bytes) {
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    if (pos > 0) {
+      out.write(buf, 0, pos);
+      pos = 0;
+    }
+  }
+}
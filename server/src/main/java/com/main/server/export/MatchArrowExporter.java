@@ -0,0 +1,154 @@
+package com.main.server.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.main.server.export.ArrowStreamWriter.Column;
+import com.main.server.export.ArrowStreamWriter.ColumnType;
+import com.main.server.repository.MatchRepository;
+
+/**
+ * Writes the {@code matches} table (optionally joined with {@code player_builds}) as an Arrow IPC
+ * stream of typed columns, for the ML pipeline.
+ *
+ * Column names follow the CSV export. Champion, position and game mode strings are dictionary encoded.
+ * Rows are read through the same server-side cursor as the CSV export and written in record batches
+ * of {@code riot.export.arrow-batch-rows}, so memory is bounded by one batch.
+ */
+@Service
+public class MatchArrowExporter {
+  private static final Logger logger = LoggerFactory.getLogger(MatchArrowExporter.class);
+
+  public static final String CONTENT_TYPE = "application/vnd.apache.arrow.stream";
+
+  private record ExportColumn(String sql, String name, ColumnType type) {}
+
+  private static final List<ExportColumn> MATCH_COLUMNS = List.of(
+    new ExportColumn("puuid", "puuid", ColumnType.UTF8),
+    new ExportColumn("match_id", "matchId", ColumnType.UTF8),
+    new ExportColumn("champion_name", "championName", ColumnType.DICTIONARY_UTF8),
+    new ExportColumn("champion_id", "championId", ColumnType.DICTIONARY_UTF8),
+    new ExportColumn("team_position", "teamPosition", ColumnType.DICTIONARY_UTF8),
+    new ExportColumn("win", "win", ColumnType.BOOL),
+    new ExportColumn("kills", "kills", ColumnType.INT32),
+    new ExportColumn("deaths", "deaths", ColumnType.INT32),
+    new ExportColumn("assists", "assists", ColumnType.INT32),
+    new ExportColumn("gold_earned", "goldEarned", ColumnType.INT32),
+    new ExportColumn("gold_spent", "goldSpent", ColumnType.INT32),
+    new ExportColumn("cs_per_min", "csPerMin", ColumnType.FLOAT64),
+    new ExportColumn("kda", "kda", ColumnType.FLOAT64),
+    new ExportColumn("vision_score", "visionScore", ColumnType.INT32),
+    new ExportColumn("wards_placed", "wardsPlaced", ColumnType.INT32),
+    new ExportColumn("wards_killed", "wardsKilled", ColumnType.INT32),
+    new ExportColumn("damage_dealt_to_champions", "damageDealtToChampions", ColumnType.INT32),
+    new ExportColumn("total_damage_taken", "totalDamageTaken", ColumnType.INT32),
+    new ExportColumn("game_mode", "gameMode", ColumnType.DICTIONARY_UTF8),
+    new ExportColumn("queue_id", "queueId", ColumnType.INT32),
+    new ExportColumn("game_duration", "gameDuration", ColumnType.INT64),
+    new ExportColumn("total_minions_killed", "totalMinionsKilled", ColumnType.INT32),
+    new ExportColumn("neutral_minions_killed", "neutralMinionsKilled", ColumnType.INT32),
+    new ExportColumn("turret_takedowns", "turretTakedowns", ColumnType.INT32),
+    new ExportColumn("inhibitor_takedowns", "inhibitorTakedowns", ColumnType.INT32),
+    new ExportColumn("game_start_timestamp", "gameStartTimestamp", ColumnType.INT64)
+  );
+
+  private static final String[] ITEM_COLUMNS = {"item0", "item1", "item2", "item3", "item4", "item5", "item6"};
+
+  private final MatchRepository matchRepository;
+  private final TransactionTemplate readOnly;
+  private final int fetchSize;
+  private final int batchRows;
+
+  public MatchArrowExporter(MatchRepository matchRepository, PlatformTransactionManager transactionManager,
+                            @Value("${riot.export.fetch-size:5000}") int fetchSize,
+                            @Value("${riot.export.arrow-batch-rows:65536}") int batchRows) {
+    this.matchRepository = matchRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.fetchSize = fetchSize;
+    this.batchRows = batchRows;
+  }
+
+  /**
+   * Writes every matching row to {@code out} as one Arrow stream. {@code out} is flushed but not closed.
+   *
+   * The end-of-stream marker is only written once every row has been read, but readers such as
+   * {@code pyarrow} also accept a stream that simply stops after a complete batch. Callers must
+   * therefore not finish {@code out} normally when this throws; abort the transfer (or discard the
+   * file) instead.
+   *
+   * @param puuid      only this player's matches, or {@code null} for all of them
+   * @param withBuilds add the participant's final item slots as {@code item0..item6}
+   * @param out        destination
+   * @return number of rows written
+   */
+  public long export(String puuid, boolean withBuilds, OutputStream out) throws IOException {
+    long started = System.nanoTime();
+    List<Column> columns = new ArrayList<>();
+    StringBuilder select = new StringBuilder();
+    for (ExportColumn c : MATCH_COLUMNS) {
+      columns.add(new Column(c.name(), c.type()));
+      select.append(select.isEmpty() ? "" : ", ").append(c.sql());
+    }
+    if (withBuilds) {
+      for (String item : ITEM_COLUMNS) {
+        columns.add(new Column(item, ColumnType.INT32));
+        select.append(", ").append(item);
+      }
+    }
+
+    ArrowStreamWriter writer = new ArrowStreamWriter(out, columns, batchRows);
+    try {
+      readOnly.executeWithoutResult(tx -> matchRepository.streamMatches(puuid, select.toString(), withBuilds, fetchSize, rs -> {
+        try {
+          writeRow(writer, columns, rs);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.close();
+    logger.info("Exported {} matches as Arrow in {}ms", writer.rows(), (System.nanoTime() - started) / 1_000_000);
+    return writer.rows();
+  }
+
+  private static void writeRow(ArrowStreamWriter w, List<Column> columns, ResultSet rs) throws IOException, SQLException {
+    for (int i = 0; i < columns.size(); i++) {
+      int col = i + 1;
+      switch (columns.get(i).type()) {
+        case UTF8, DICTIONARY_UTF8 -> w.writeString(i, rs.getString(col));
+        case INT32 -> {
+          int v = rs.getInt(col);
+          if (rs.wasNull()) w.writeNull(i); else w.writeInt(i, v);
+        }
+        case INT64 -> {
+          long v = rs.getLong(col);
+          if (rs.wasNull()) w.writeNull(i); else w.writeLong(i, v);
+        }
+        case FLOAT64 -> {
+          double v = rs.getDouble(col);
+          if (rs.wasNull()) w.writeNull(i); else w.writeDouble(i, v);
+        }
+        case BOOL -> {
+          boolean v = rs.getBoolean(col);
+          if (rs.wasNull()) w.writeNull(i); else w.writeBool(i, v);
+        }
+      }
+    }
+    w.endRow();
+  }
+}
@@ -0,0 +1,111 @@
+package com.main.server.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.main.server.repository.MatchRepository;
+
+/**
+ * Writes the {@code matches} table as CSV (the format the ML pipeline reads) while it is being read.
+ *
+ * Rows come from a server-side cursor ({@code riot.export.fetch-size} rows per round trip) and are
+ * encoded with {@link CsvWriter} directly from the {@link ResultSet}, without building {@code Match}
+ * objects, so memory use is constant however many rows are exported.
+ */
+@Service
+public class MatchCsvExporter {
+  private static final Logger logger = LoggerFactory.getLogger(MatchCsvExporter.class);
+
+  private static final String HEADER = "puuid,matchId,championName,championId,teamPosition,win,kills,deaths,assists,goldEarned,goldSpent,csPerMin,kda,visionScore,wardsPlaced,wardsKilled,damageDealtToChampions,totalDamageTaken,gameMode,queueId,gameDuration,totalMinionsKilled,neutralMinionsKilled,turretTakedowns,inhibitorTakedowns";
+
+  /** Select list in {@link #HEADER} order. */
+  private static final String COLUMNS = """
+      puuid, match_id, champion_name, champion_id, team_position, win, kills, deaths, assists,
+      gold_earned, gold_spent, cs_per_min, kda, vision_score, wards_placed, wards_killed,
+      damage_dealt_to_champions, total_damage_taken, game_mode, queue_id, game_duration,
+      total_minions_killed, neutral_minions_killed, turret_takedowns, inhibitor_takedowns""";
+
+  private static final int BUFFER_BYTES = 64 * 1024;
+
+  private final MatchRepository matchRepository;
+  private final TransactionTemplate readOnly;
+  private final int fetchSize;
+
+  public MatchCsvExporter(MatchRepository matchRepository, PlatformTransactionManager transactionManager,
+                          @Value("${riot.export.fetch-size:5000}") int fetchSize) {
+    this.matchRepository = matchRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Writes the header and every matching row to {@code out}, then closes it.
+   *
+   * If the export fails partway, {@code out} is left open and the exception propagates: closing it would
+   * end the (possibly gzip-compressed, chunked) download cleanly and a truncated file would look
+   * complete. The caller is expected to abort the transfer instead.
+   *
+   * @param puuid only this player's matches, or {@code null} for all of them
+   * @param out   destination; written in {@value #BUFFER_BYTES}-byte chunks
+   * @return number of rows written
+   */
+  public long export(String puuid, OutputStream out) throws IOException {
+    long started = System.nanoTime();
+    long[] rows = {0};
+    CsvWriter csv = new CsvWriter(out, BUFFER_BYTES);
+    for (String name : HEADER.split(",")) {
+      csv.field(name);
+    }
+    csv.endRow();
+    // the header goes out before the query starts, so the client sees the download begin
+    csv.flush();
+    try {
+      readOnly.executeWithoutResult(tx -> matchRepository.streamMatches(puuid, COLUMNS, false, fetchSize, rs -> {
+        try {
+          writeRow(csv, rs);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        rows[0]++;
+      }));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    csv.close();
+    logger.info("Exported {} matches as CSV in {}ms", rows[0], (System.nanoTime() - started) / 1_000_000);
+    return rows[0];
+  }
+
+  private static void writeRow(CsvWriter csv, ResultSet rs) throws IOException, SQLException {
+    csv.field(rs.getString(1));
+    csv.field(rs.getString(2));
+    csv.field(rs.getString(3));
+    csv.field(rs.getString(4));
+    csv.field(rs.getString(5));
+    csv.field(rs.getBoolean(6));
+    for (int col = 7; col <= 11; col++) {
+      csv.field(rs.getLong(col));
+    }
+    csv.field(rs.getDouble(12));
+    csv.field(rs.getDouble(13));
+    for (int col = 14; col <= 18; col++) {
+      csv.field(rs.getLong(col));
+    }
+    csv.field(rs.getString(19));
+    for (int col = 20; col <= 25; col++) {
+      csv.field(rs.getLong(col));
+    }
+    csv.endRow();
+  }
+}
@@ -0,0 +1,26 @@
+package com.main.server.mapper;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.main.server.model.IngestJob;
+
+public class IngestJobRowMapper implements RowMapper<IngestJob> {
+
+  @Override
+  public IngestJob mapRow(ResultSet rs, int rowNum) throws SQLException {
+    IngestJob job = new IngestJob();
+    job.setId(rs.getLong("id"));
+    job.setKind(rs.getString("kind"));
+    job.setPuuid(rs.getString("puuid"));
+    job.setRegion(rs.getString("region"));
+    Array ids = rs.getArray("match_ids");
+    job.setMatchIds(ids == null ? List.of() : List.of((String[]) ids.getArray()));
+    job.setAttempts(rs.getInt("attempts"));
+    return job;
+  }
+}
@@ -0,0 +1,21 @@
+package com.main.server.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.main.server.model.SyncState;
+
+public class SyncStateRowMapper implements RowMapper<SyncState> {
+
+  @Override
+  public SyncState mapRow(ResultSet rs, int rowNum) throws SQLException {
+    SyncState state = new SyncState();
+    state.setPuuid(rs.getString("puuid"));
+    state.setNewestGameStart(rs.getLong("newest_game_start"));
+    state.setOldestGameStart(rs.getLong("oldest_game_start"));
+    state.setHistoryExhausted(rs.getBoolean("history_exhausted"));
+    return state;
+  }
+}
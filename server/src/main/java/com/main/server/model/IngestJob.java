@@ -0,0 +1,66 @@
+package com.main.server.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A row of the {@code ingest_jobs} table: one unit of background match caching for a player.
+ *
+ * {@code kind} is {@link #KIND_NEW_MATCHES} (cache {@code matchIds} and advance the sync state) or
+ * {@link #KIND_OLDER_MATCHES} (page one step deeper into the player's history).
+ */
+public class IngestJob {
+  public static final String KIND_NEW_MATCHES = "new-matches";
+  public static final String KIND_OLDER_MATCHES = "older-matches";
+
+  @JsonProperty("id")
+  private long id;
+
+  @JsonProperty("kind")
+  private String kind;
+
+  @JsonProperty("puuid")
+  private String puuid;
+
+  @JsonProperty("region")
+  private String region;
+
+  @JsonProperty("match_ids")
+  private List<String> matchIds;
+
+  @JsonProperty("attempts")
+  private int attempts;
+
+  public IngestJob() {}
+
+  public long getId() { return id; }
+  public void setId(long id) { this.id = id; }
+
+  public String getKind() { return kind; }
+  public void setKind(String kind) { this.kind = kind; }
+
+  public String getPuuid() { return puuid; }
+  public void setPuuid(String puuid) { this.puuid = puuid; }
+
+  public String getRegion() { return region; }
+  public void setRegion(String region) { this.region = region; }
+
+  public List<String> getMatchIds() { return matchIds; }
+  public void setMatchIds(List<String> matchIds) { this.matchIds = matchIds; }
+
+  public int getAttempts() { return attempts; }
+  public void setAttempts(int attempts) { this.attempts = attempts; }
+
+  @Override
+  public String toString() {
+    return "IngestJob{" +
+      "id=" + id +
+      ", kind='" + kind + '\'' +
+      ", puuid='" + puuid + '\'' +
+      ", region='" + region + '\'' +
+      ", matchIds=" + (matchIds == null ? 0 : matchIds.size()) +
+      ", attempts=" + attempts +
+      '}';
+  }
+}
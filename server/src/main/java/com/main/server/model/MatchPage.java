@@ -0,0 +1,55 @@
+package com.main.server.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a player's match history, newest first.
+ *
+ * Each match holds only the requested fields (keyed like the full {@link Match} JSON), plus
+ * {@code metadata.matchId} and {@code gameStartTimestamp}. {@code nextCursor} is an opaque token
+ * for the page after this one, or {@code null} on the last page.
+ */
+public class MatchPage {
+  private final List<Map<String, Object>> matches;
+  private final String nextCursor;
+
+  public MatchPage(List<Map<String, Object>> matches, String nextCursor) {
+    this.matches = matches;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<Map<String, Object>> getMatches() {
+    return matches;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * Position in a history ordered by {@code (game_start_timestamp, match_id)} descending; the next
+   * page starts strictly after it.
+   */
+  public record Cursor(long gameStartTimestamp, String matchId) {
+    public String encode() {
+      String raw = gameStartTimestamp + ":" + matchId;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode}
+     */
+    public static Cursor decode(String token) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int sep = raw.indexOf(':');
+        return new Cursor(Long.parseLong(raw.substring(0, sep)), raw.substring(sep + 1));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.main.server.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Per-minute series of one participant in one match, taken from the Match-V5 timeline.
+ *
+ * Index {@code i} of each array is the participant's running total at minute {@code i} (frame 0 is
+ * the game start). The series are plain {@code int[]}s end to end: stored packed in {@code bytea}
+ * columns and serialized by Jackson without boxing.
+ */
+public class MatchTimeline {
+  @JsonProperty("match_id")
+  private String matchId;
+
+  @JsonProperty("puuid")
+  private String puuid;
+
+  @JsonProperty("participant_id")
+  private int participantId;
+
+  @JsonProperty("frame_interval_ms")
+  private int frameIntervalMs;
+
+  @JsonProperty("gold")
+  private int[] gold;
+
+  @JsonProperty("xp")
+  private int[] xp;
+
+  @JsonProperty("cs")
+  private int[] cs;
+
+  public MatchTimeline() {}
+
+  public MatchTimeline(String matchId, String puuid, int participantId, int frameIntervalMs, int[] gold, int[] xp, int[] cs) {
+    this.matchId = matchId;
+    this.puuid = puuid;
+    this.participantId = participantId;
+    this.frameIntervalMs = frameIntervalMs;
+    this.gold = gold;
+    this.xp = xp;
+    this.cs = cs;
+  }
+
+  public String getMatchId() { return matchId; }
+  public void setMatchId(String matchId) { this.matchId = matchId; }
+
+  public String getPuuid() { return puuid; }
+  public void setPuuid(String puuid) { this.puuid = puuid; }
+
+  public int getParticipantId() { return participantId; }
+  public void setParticipantId(int participantId) { this.participantId = participantId; }
+
+  public int getFrameIntervalMs() { return frameIntervalMs; }
+  public void setFrameIntervalMs(int frameIntervalMs) { this.frameIntervalMs = frameIntervalMs; }
+
+  public int[] getGold() { return gold; }
+  public void setGold(int[] gold) { this.gold = gold; }
+
+  public int[] getXp() { return xp; }
+  public void setXp(int[] xp) { this.xp = xp; }
+
+  public int[] getCs() { return cs; }
+  public void setCs(int[] cs) { this.cs = cs; }
+
+  @Override
+  public String toString() {
+    return "MatchTimeline{" +
+      "matchId='" + matchId + '\'' +
+      ", puuid='" + puuid + '\'' +
+      ", participantId=" + participantId +
+      ", frames=" + (gold == null ? 0 : gold.length) +
+      '}';
+  }
+}
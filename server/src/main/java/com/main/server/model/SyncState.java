@@ -0,0 +1,55 @@
+package com.main.server.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Per-player match-history sync progress.
+ *
+ * {@code newestGameStart} and {@code oldestGameStart} (epoch millis) bound the contiguous range of the
+ * player's ranked history that has been cached. New games are fetched with {@code startTime} after the
+ * newest one, and deeper history is paged with {@code endTime} before the oldest one (the cursor).
+ */
+public class SyncState {
+  @JsonProperty("puuid")
+  private String puuid;
+
+  @JsonProperty("newest_game_start")
+  private long newestGameStart;
+
+  @JsonProperty("oldest_game_start")
+  private long oldestGameStart;
+
+  @JsonProperty("history_exhausted")
+  private boolean historyExhausted;
+
+  public SyncState() {}
+
+  public SyncState(String puuid, long newestGameStart, long oldestGameStart, boolean historyExhausted) {
+    this.puuid = puuid;
+    this.newestGameStart = newestGameStart;
+    this.oldestGameStart = oldestGameStart;
+    this.historyExhausted = historyExhausted;
+  }
+
+  public String getPuuid() { return puuid; }
+  public void setPuuid(String puuid) { this.puuid = puuid; }
+
+  public long getNewestGameStart() { return newestGameStart; }
+  public void setNewestGameStart(long newestGameStart) { this.newestGameStart = newestGameStart; }
+
+  public long getOldestGameStart() { return oldestGameStart; }
+  public void setOldestGameStart(long oldestGameStart) { this.oldestGameStart = oldestGameStart; }
+
+  public boolean isHistoryExhausted() { return historyExhausted; }
+  public void setHistoryExhausted(boolean historyExhausted) { this.historyExhausted = historyExhausted; }
+
+  @Override
+  public String toString() {
+    return "SyncState{" +
+      "puuid='" + puuid + '\'' +
+      ", newestGameStart=" + newestGameStart +
+      ", oldestGameStart=" + oldestGameStart +
+      ", historyExhausted=" + historyExhausted +
+      '}';
+  }
+}
@@ -0,0 +1,186 @@
+package com.main.server.repository;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.main.server.mapper.IngestJobRowMapper;
+import com.main.server.model.IngestJob;
+
+/**
+ * Repository for the `ingest_jobs` table, a durable work queue shared by every server instance.
+ *
+ * Jobs move from {@code queued} to {@code running} when claimed, and are deleted on success. Failed
+ * attempts go back to {@code queued} with a later {@code run_after}, or to {@code failed} once retries
+ * are used up.
+ */
+@Repository
+public class IngestJobRepository {
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Queues a job, merging it into the player's already queued job of the same kind if there is one.
+   *
+   * @return number of rows affected
+   */
+  public int enqueue(String kind, String puuid, String region, List<String> matchIds) {
+    String sql = """
+      INSERT INTO ingest_jobs (kind, puuid, region, match_ids)
+      VALUES (?, ?, ?, ?)
+      ON CONFLICT (puuid, kind) WHERE status = 'queued' DO UPDATE SET
+        region    = EXCLUDED.region,
+        match_ids = ARRAY(SELECT DISTINCT unnest(ingest_jobs.match_ids || EXCLUDED.match_ids))
+      """;
+    return jdbcTemplate.update(con -> {
+      PreparedStatement ps = con.prepareStatement(sql);
+      ps.setString(1, kind);
+      ps.setString(2, puuid);
+      ps.setString(3, region);
+      ps.setArray(4, con.createArrayOf("text", matchIds.toArray()));
+      return ps;
+    });
+  }
+
+  /**
+   * Claims up to {@code limit} runnable jobs for {@code worker}. Rows locked by another instance's
+   * claim are skipped rather than waited on, so any number of instances can poll concurrently. A job
+   * is not claimed while the same player has a job of that kind running.
+   */
+  public List<IngestJob> claim(String worker, int limit) {
+    String sql = """
+      UPDATE ingest_jobs
+         SET status = 'running', attempts = attempts + 1, locked_by = ?, locked_at = now()
+       WHERE id IN (
+         SELECT j.id
+           FROM ingest_jobs j
+          WHERE j.status = 'queued'
+            AND j.run_after <= now()
+            AND NOT EXISTS (
+              SELECT 1 FROM ingest_jobs r
+               WHERE r.status = 'running' AND r.puuid = j.puuid AND r.kind = j.kind
+            )
+          ORDER BY j.run_after
+          LIMIT ?
+            FOR UPDATE SKIP LOCKED
+       )
+      RETURNING *
+      """;
+    return jdbcTemplate.query(sql, new IngestJobRowMapper(), worker, limit);
+  }
+
+  /**
+   * Deletes a finished job.
+   *
+   * Like {@link #retry} and {@link #fail}, this only acts while {@code worker} still holds the claim it
+   * made as attempt {@code attempt}: once an expired lease has been released and the job claimed again
+   * (which increments {@code attempts}), the original worker can no longer touch it.
+   *
+   * @return {@code 0} if the claim was lost
+   */
+  public int complete(long id, String worker, int attempt) {
+    return jdbcTemplate.update(
+      "DELETE FROM ingest_jobs WHERE id = ? AND status = 'running' AND locked_by = ? AND attempts = ?",
+      id, worker, attempt);
+  }
+
+  /**
+   * Puts a job back in the queue to run again after {@code delayMs}. If another request for the same
+   * player was queued in the meantime, the retry is merged into that job instead, which takes over the
+   * higher attempt count so a match that keeps failing still runs out of retries.
+   *
+   * @return {@code 0} if the claim was lost (see {@link #complete}), otherwise {@code 1}
+   */
+  public int retry(long id, String worker, int attempt, long delayMs, String error) {
+    String sql = """
+      WITH failed AS (
+        SELECT id, kind, puuid, match_ids, attempts FROM ingest_jobs
+         WHERE id = ? AND status = 'running' AND locked_by = ? AND attempts = ?
+      ), merged AS (
+        UPDATE ingest_jobs q
+           SET match_ids = ARRAY(SELECT DISTINCT unnest(q.match_ids || failed.match_ids)),
+               attempts  = GREATEST(q.attempts, failed.attempts)
+          FROM failed
+         WHERE q.status = 'queued' AND q.puuid = failed.puuid AND q.kind = failed.kind
+        RETURNING failed.id
+      ), dropped AS (
+        DELETE FROM ingest_jobs WHERE id IN (SELECT id FROM merged)
+        RETURNING id
+      ), requeued AS (
+        UPDATE ingest_jobs
+           SET status = 'queued', run_after = now() + ? * INTERVAL '1 millisecond',
+               locked_by = NULL, locked_at = NULL, last_error = ?
+         WHERE id IN (SELECT id FROM failed) AND NOT EXISTS (SELECT 1 FROM merged)
+        RETURNING id
+      )
+      SELECT (SELECT COUNT(*) FROM dropped) + (SELECT COUNT(*) FROM requeued)
+      """;
+    Integer rows = jdbcTemplate.queryForObject(sql, Integer.class, id, worker, attempt, delayMs, error);
+    return rows == null ? 0 : rows;
+  }
+
+  /**
+   * Parks a job as {@code failed}.
+   *
+   * @return {@code 0} if the claim was lost (see {@link #complete})
+   */
+  public int fail(long id, String worker, int attempt, String error) {
+    String sql = """
+      UPDATE ingest_jobs
+         SET status = 'failed', locked_by = NULL, locked_at = NULL, last_error = ?
+       WHERE id = ? AND status = 'running' AND locked_by = ? AND attempts = ?
+      """;
+    return jdbcTemplate.update(sql, error, id, worker, attempt);
+  }
+
+  /**
+   * Re-queues jobs whose worker has held them for longer than {@code leaseMs}, e.g. because the
+   * instance running them died. If the player already has a queued job of that kind, the expired job
+   * is merged into it instead, as in {@link #retry}; leaving it running would keep {@link #claim} from
+   * ever picking up the queued one.
+   *
+   * @return number of jobs released or merged
+   */
+  public int releaseExpired(long leaseMs) {
+    String sql = """
+      WITH expired AS (
+        SELECT id, kind, puuid, match_ids, attempts FROM ingest_jobs
+         WHERE status = 'running' AND locked_at < now() - ? * INTERVAL '1 millisecond'
+           FOR UPDATE SKIP LOCKED
+      ), merged AS (
+        UPDATE ingest_jobs q
+           SET match_ids = ARRAY(SELECT DISTINCT unnest(q.match_ids || expired.match_ids)),
+               attempts  = GREATEST(q.attempts, expired.attempts)
+          FROM expired
+         WHERE q.status = 'queued' AND q.puuid = expired.puuid AND q.kind = expired.kind
+        RETURNING expired.id
+      ), dropped AS (
+        DELETE FROM ingest_jobs WHERE id IN (SELECT id FROM merged)
+        RETURNING id
+      ), requeued AS (
+        UPDATE ingest_jobs
+           SET status = 'queued', locked_by = NULL, locked_at = NULL, last_error = 'lease expired'
+         WHERE id IN (SELECT id FROM expired) AND id NOT IN (SELECT id FROM merged)
+        RETURNING id
+      )
+      SELECT (SELECT COUNT(*) FROM dropped) + (SELECT COUNT(*) FROM requeued)
+      """;
+    Integer released = jdbcTemplate.queryForObject(sql, Integer.class, leaseMs);
+    return released == null ? 0 : released;
+  }
+
+  /**
+   * Number of jobs per status.
+   */
+  public Map<String, Long> countByStatus() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    jdbcTemplate.query("SELECT status, COUNT(*) FROM ingest_jobs GROUP BY status ORDER BY status",
+      rs -> { counts.put(rs.getString(1), rs.getLong(2)); });
+    return counts;
+  }
+}
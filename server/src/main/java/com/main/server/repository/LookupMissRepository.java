@@ -0,0 +1,33 @@
+package com.main.server.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the `player_lookup_misses` table: Riot lookups that returned 404, so that repeats
+ * can be answered without asking Riot again until the miss goes stale.
+ */
+@Repository
+public class LookupMissRepository {
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  public boolean isFreshMiss(String key, long maxAgeMs) {
+    String sql = """
+      SELECT EXISTS (
+        SELECT 1 FROM player_lookup_misses
+         WHERE lookup_key = ? AND checked_at > now() - ? * INTERVAL '1 millisecond'
+      )
+      """;
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, key, maxAgeMs));
+  }
+
+  public int recordMiss(String key) {
+    String sql = """
+      INSERT INTO player_lookup_misses (lookup_key, checked_at) VALUES (?, now())
+      ON CONFLICT (lookup_key) DO UPDATE SET checked_at = now()
+      """;
+    return jdbcTemplate.update(sql, key);
+  }
+}
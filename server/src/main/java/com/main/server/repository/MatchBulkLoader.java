@@ -0,0 +1,212 @@
+package com.main.server.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.main.server.model.Match;
+import com.main.server.model.PlayerBuild;
+
+/**
+ * Bulk load path for backfills and re-parses that produce far more rows than batched inserts handle
+ * well.
+ *
+ * Rows are streamed with binary {@code COPY FROM STDIN} into a temporary staging table (one row per
+ * participant, match columns plus the build's item slots), then merged into {@code matches} and
+ * {@code player_builds} with one set-based {@code INSERT ... SELECT ... ON CONFLICT} each. Rows are
+ * encoded as they are produced, so the caller never has to hold them in memory. Everything happens in
+ * one transaction: a failed load leaves both tables untouched.
+ */
+@Repository
+public class MatchBulkLoader {
+  private static final Logger logger = LoggerFactory.getLogger(MatchBulkLoader.class);
+
+  @Autowired
+  private DataSource dataSource;
+
+  private static final String MATCH_COLUMNS = """
+      match_id, puuid, champion_name, champion_id, role, team_position, win,
+      kills, deaths, assists, gold_earned, gold_spent,
+      total_minions_killed, neutral_minions_killed,
+      damage_dealt_to_champions, total_damage_taken,
+      vision_score, wards_placed, wards_killed,
+      turret_takedowns, inhibitor_takedowns,
+      game_start_timestamp, game_duration, game_mode, queue_id,
+      cs_per_min, kda""";
+
+  private static final String BUILD_COLUMNS = "match_id, puuid, item0, item1, item2, item3, item4, item5, item6";
+
+  /** Staging columns; types must match what {@link #write} encodes. */
+  private static final String CREATE_STAGE = """
+      CREATE TEMP TABLE match_stage (
+        match_id TEXT, puuid TEXT, champion_name TEXT, champion_id TEXT, role TEXT, team_position TEXT, win BOOLEAN,
+        kills INT, deaths INT, assists INT, gold_earned INT, gold_spent INT,
+        total_minions_killed INT, neutral_minions_killed INT,
+        damage_dealt_to_champions INT, total_damage_taken INT,
+        vision_score INT, wards_placed INT, wards_killed INT,
+        turret_takedowns INT, inhibitor_takedowns INT,
+        game_start_timestamp BIGINT, game_duration BIGINT, game_mode TEXT, queue_id INT,
+        cs_per_min DOUBLE PRECISION, kda DOUBLE PRECISION,
+        item0 INT, item1 INT, item2 INT, item3 INT, item4 INT, item5 INT, item6 INT
+      ) ON COMMIT DROP
+      """;
+
+  private static final int STAGE_FIELDS = 34;
+
+  /**
+   * Receives the rows of a bulk load.
+   */
+  public interface Sink {
+    /**
+     * Stages one participant.
+     *
+     * @param match the participant's match row
+     * @param build the participant's build, or {@code null} to stage the match row only
+     */
+    void add(Match match, PlayerBuild build) throws Exception;
+  }
+
+  /**
+   * Produces the rows of a bulk load by calling {@link Sink#add} once per participant.
+   */
+  @FunctionalInterface
+  public interface RowSource {
+    void writeTo(Sink sink) throws Exception;
+  }
+
+  /**
+   * Rows staged and rows written by a load.
+   */
+  public record Result(long staged, int matches, int builds) {}
+
+  /**
+   * Streams the rows produced by {@code source} into the staging table and merges them.
+   *
+   * @param source  produces the rows; runs on the calling thread while the {@code COPY} is open
+   * @param replace whether existing rows are overwritten (e.g. after a parser fix) or kept as they are
+   * @return how many rows were staged and how many were inserted or updated per table
+   * @throws Exception if the source fails or the load is rejected; nothing is written in that case
+   */
+  public Result load(RowSource source, boolean replace) throws Exception {
+    long started = System.nanoTime();
+    try (Connection con = dataSource.getConnection()) {
+      boolean autoCommit = con.getAutoCommit();
+      con.setAutoCommit(false);
+      try (Statement st = con.createStatement()) {
+        st.execute(CREATE_STAGE);
+
+        PGCopyOutputStream copy = new PGCopyOutputStream(con.unwrap(PGConnection.class),
+          "COPY match_stage FROM STDIN (FORMAT binary)");
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copy);
+        try {
+          source.writeTo((match, build) -> write(writer, match, build));
+          writer.finish();
+        } catch (Exception e) {
+          if (copy.isActive()) {
+            copy.cancelCopy();
+          }
+          throw e;
+        }
+
+        st.execute("ANALYZE match_stage");
+        int matches = st.executeUpdate(mergeMatches(replace));
+        int builds = st.executeUpdate(mergeBuilds(replace));
+        con.commit();
+        logger.info("Bulk loaded {} staged rows in {}ms: {} matches, {} builds written",
+          writer.rows(), (System.nanoTime() - started) / 1_000_000, matches, builds);
+        return new Result(writer.rows(), matches, builds);
+      } catch (Exception e) {
+        con.rollback();
+        throw e;
+      } finally {
+        con.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException e) {
+      logger.error("Bulk load failed: {}", e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  private static void write(PgBinaryCopyWriter w, Match m, PlayerBuild b) throws Exception {
+    w.row(STAGE_FIELDS);
+    w.text(m.getMatchId());
+    w.text(m.getPuuid());
+    w.text(m.getChampionName());
+    w.text(m.getChampionId());
+    w.text(m.getRole());
+    w.text(m.getTeamPosition());
+    w.bool(m.isWin());
+    w.int4(m.getKills());
+    w.int4(m.getDeaths());
+    w.int4(m.getAssists());
+    w.int4(m.getGoldEarned());
+    w.int4(m.getGoldSpent());
+    w.int4(m.getTotalMinionsKilled());
+    w.int4(m.getNeutralMinionsKilled());
+    w.int4(m.getDamageDealtToChampions());
+    w.int4(m.getTotalDamageTaken());
+    w.int4(m.getVisionScore());
+    w.int4(m.getWardsPlaced());
+    w.int4(m.getWardsKilled());
+    w.int4(m.getTurretTakedowns());
+    w.int4(m.getInhibitorTakedowns());
+    w.int8(m.getGameStartTimestamp());
+    w.int8(m.getGameDuration());
+    w.text(m.getGameMode());
+    w.int4(m.getQueueId());
+    w.float8(m.getCsPerMin());
+    w.float8(m.getKda());
+    if (b == null) {
+      for (int slot = 0; slot < 7; slot++) {
+        w.nul();
+      }
+    } else {
+      for (int item : b.toArray()) {
+        w.int4(item);
+      }
+    }
+  }
+
+  private static String mergeMatches(boolean replace) {
+    return "INSERT INTO matches (" + MATCH_COLUMNS + ")\n"
+      + "SELECT DISTINCT ON (match_id, puuid) " + MATCH_COLUMNS + "\n"
+      + "FROM match_stage ORDER BY match_id, puuid\n"
+      + "ON CONFLICT (match_id, puuid) " + onConflict(MATCH_COLUMNS, replace);
+  }
+
+  private static String mergeBuilds(boolean replace) {
+    return "INSERT INTO player_builds (" + BUILD_COLUMNS + ")\n"
+      + "SELECT DISTINCT ON (match_id, puuid) " + BUILD_COLUMNS + "\n"
+      + "FROM match_stage WHERE item0 IS NOT NULL ORDER BY match_id, puuid\n"
+      + "ON CONFLICT (match_id, puuid) " + onConflict(BUILD_COLUMNS, replace);
+  }
+
+  /**
+   * {@code DO NOTHING}, or {@code DO UPDATE} of every non-key column from the staged row.
+   */
+  private static String onConflict(String columns, boolean replace) {
+    if (!replace) {
+      return "DO NOTHING";
+    }
+    StringBuilder sb = new StringBuilder("DO UPDATE SET ");
+    boolean first = true;
+    for (String column : columns.split(",")) {
+      String c = column.strip();
+      if (c.equals("match_id") || c.equals("puuid")) {
+        continue;
+      }
+      sb.append(first ? "" : ", ").append(c).append(" = EXCLUDED.").append(c);
+      first = false;
+    }
+    return sb.toString();
+  }
+}
@@ -2,17 +2,26 @@ package com.main.server.repository;
 
 import com.main.server.mapper.MatchRowMapper;
 import com.main.server.model.Match;
+import com.main.server.model.MatchPage;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -25,8 +34,7 @@ public class MatchRepository {
   @Autowired
   private JdbcTemplate jdbcTemplate;
 
-  public int save(Match m) {
-    String sql = """
+  private static final String INSERT_SQL = """
       INSERT INTO matches (
         match_id, puuid, champion_name, champion_id, role, team_position, win,
         kills, deaths, assists, gold_earned, gold_spent,
@@ -40,8 +48,45 @@ public class MatchRepository {
       ON CONFLICT (match_id, puuid) DO NOTHING
       """;
 
+  private enum ColumnType { TEXT, INT, BIGINT, BOOL, DOUBLE }
+
+  private record Column(String name, ColumnType type) {}
+
+  /** Fields a match page can be projected to, keyed like the {@link Match} JSON. */
+  private static final Map<String, Column> PAGE_COLUMNS = new LinkedHashMap<>();
+  static {
+    PAGE_COLUMNS.put("metadata.matchId", new Column("match_id", ColumnType.TEXT));
+    PAGE_COLUMNS.put("gameStartTimestamp", new Column("game_start_timestamp", ColumnType.BIGINT));
+    PAGE_COLUMNS.put("puuid", new Column("puuid", ColumnType.TEXT));
+    PAGE_COLUMNS.put("championName", new Column("champion_name", ColumnType.TEXT));
+    PAGE_COLUMNS.put("championId", new Column("champion_id", ColumnType.TEXT));
+    PAGE_COLUMNS.put("role", new Column("role", ColumnType.TEXT));
+    PAGE_COLUMNS.put("teamPosition", new Column("team_position", ColumnType.TEXT));
+    PAGE_COLUMNS.put("win", new Column("win", ColumnType.BOOL));
+    PAGE_COLUMNS.put("kills", new Column("kills", ColumnType.INT));
+    PAGE_COLUMNS.put("deaths", new Column("deaths", ColumnType.INT));
+    PAGE_COLUMNS.put("assists", new Column("assists", ColumnType.INT));
+    PAGE_COLUMNS.put("goldEarned", new Column("gold_earned", ColumnType.INT));
+    PAGE_COLUMNS.put("goldSpent", new Column("gold_spent", ColumnType.INT));
+    PAGE_COLUMNS.put("totalMinionsKilled", new Column("total_minions_killed", ColumnType.INT));
+    PAGE_COLUMNS.put("neutralMinionsKilled", new Column("neutral_minions_killed", ColumnType.INT));
+    PAGE_COLUMNS.put("damageDealtToChampions", new Column("damage_dealt_to_champions", ColumnType.INT));
+    PAGE_COLUMNS.put("totalDamageTaken", new Column("total_damage_taken", ColumnType.INT));
+    PAGE_COLUMNS.put("visionScore", new Column("vision_score", ColumnType.INT));
+    PAGE_COLUMNS.put("wardsPlaced", new Column("wards_placed", ColumnType.INT));
+    PAGE_COLUMNS.put("wardsKilled", new Column("wards_killed", ColumnType.INT));
+    PAGE_COLUMNS.put("turretTakedowns", new Column("turret_takedowns", ColumnType.INT));
+    PAGE_COLUMNS.put("inhibitorTakedowns", new Column("inhibitor_takedowns", ColumnType.INT));
+    PAGE_COLUMNS.put("gameDuration", new Column("game_duration", ColumnType.BIGINT));
+    PAGE_COLUMNS.put("gameMode", new Column("game_mode", ColumnType.TEXT));
+    PAGE_COLUMNS.put("queueId", new Column("queue_id", ColumnType.INT));
+    PAGE_COLUMNS.put("csPerMin", new Column("cs_per_min", ColumnType.DOUBLE));
+    PAGE_COLUMNS.put("kda", new Column("kda", ColumnType.DOUBLE));
+  }
+
+  public int save(Match m) {
     try {
-      return jdbcTemplate.update(sql,
+      return jdbcTemplate.update(INSERT_SQL,
         m.getMatchId(),
         m.getPuuid(),
         m.getChampionName(),
@@ -80,31 +125,228 @@ public class MatchRepository {
       throw dae;
     }
   }
+
+  /**
+   * Inserts several match rows with a single JDBC batch. Rows that already exist are left untouched.
+   *
+   * @param matches rows to insert (typically every participant of a downloaded match)
+   * @return per-row update counts as reported by the driver ({@code SUCCESS_NO_INFO} once rewritten into multi-row inserts)
+   */
+  public int[] saveAll(List<Match> matches) {
+    if (matches.isEmpty()) {
+      return new int[0];
+    }
+    try {
+      return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+          Match m = matches.get(i);
+          ps.setString(1, m.getMatchId());
+          ps.setString(2, m.getPuuid());
+          ps.setString(3, m.getChampionName());
+          ps.setString(4, m.getChampionId());
+          ps.setString(5, m.getRole());
+          ps.setString(6, m.getTeamPosition());
+          ps.setBoolean(7, m.isWin());
+          ps.setInt(8, m.getKills());
+          ps.setInt(9, m.getDeaths());
+          ps.setInt(10, m.getAssists());
+          ps.setInt(11, m.getGoldEarned());
+          ps.setInt(12, m.getGoldSpent());
+          ps.setInt(13, m.getTotalMinionsKilled());
+          ps.setInt(14, m.getNeutralMinionsKilled());
+          ps.setInt(15, m.getDamageDealtToChampions());
+          ps.setInt(16, m.getTotalDamageTaken());
+          ps.setInt(17, m.getVisionScore());
+          ps.setInt(18, m.getWardsPlaced());
+          ps.setInt(19, m.getWardsKilled());
+          ps.setInt(20, m.getTurretTakedowns());
+          ps.setInt(21, m.getInhibitorTakedowns());
+          ps.setLong(22, m.getGameStartTimestamp());
+          ps.setLong(23, m.getGameDuration());
+          ps.setString(24, m.getGameMode());
+          ps.setInt(25, m.getQueueId());
+          ps.setDouble(26, m.getCsPerMin());
+          ps.setDouble(27, m.getKda());
+        }
+
+        @Override
+        public int getBatchSize() {
+          return matches.size();
+        }
+      });
+    }
+    catch (DataAccessException dae) {
+      logger.error(
+        "Failed to save batch of {} matches (first match_id={}) to DB: {}",
+        matches.size(), matches.get(0).getMatchId(),
+        dae.getRootCause() != null ? dae.getRootCause().getMessage() : dae.getMessage(),
+        dae
+      );
+      throw dae;
+    }
+  }
   
 
-  public Set<String> findExistingMatchIdsForUser(List<String> ids, String puuid) {
+  /**
+   * Returns the given match IDs for which the player already has both a {@code matches} row and a
+   * {@code player_builds} row. One statement shape for any number of IDs, so it stays prepared.
+   *
+   * @param ids   match IDs to check
+   * @param puuid the player's PUUID
+   * @return the subset of {@code ids} that is fully stored for the player
+   */
+  public Set<String> findSyncedMatchIds(List<String> ids, String puuid) {
     if (ids.isEmpty()) {
       return Collections.emptySet();
     }
-    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-  
-    String sql = ""
-      + "SELECT match_id "
-      + "FROM matches "
-      + "WHERE puuid = ? "
-      + "  AND match_id IN (" + placeholders + ")";
-  
-    Object[] params = new Object[1 + ids.size()];
-    params[0] = puuid;
-    for (int i = 0; i < ids.size(); i++) {
-      params[i + 1] = ids.get(i);
+    String sql = """
+      SELECT m.match_id
+        FROM matches m
+        JOIN player_builds b ON b.match_id = m.match_id AND b.puuid = m.puuid
+       WHERE m.puuid = ?
+         AND m.match_id = ANY(?::text[])
+      """;
+    Set<String> synced = new HashSet<>();
+    jdbcTemplate.query(con -> {
+      PreparedStatement ps = con.prepareStatement(sql);
+      ps.setString(1, puuid);
+      ps.setArray(2, con.createArrayOf("text", ids.toArray()));
+      return ps;
+    }, rs -> { synced.add(rs.getString(1)); });
+    return synced;
+  }
+
+  /**
+   * Returns the oldest and newest {@code game_start_timestamp} among the given matches of a player.
+   *
+   * @param puuid the player's PUUID
+   * @param ids   match IDs to look at
+   * @return {@code [oldest, newest]}, or {@code null} if none of the matches are stored for the player
+   */
+  public long[] findTimestampRange(String puuid, List<String> ids) {
+    if (ids.isEmpty()) {
+      return null;
     }
-  
-    List<String> existing = jdbcTemplate.queryForList(sql, String.class, params);
-  
-    return new HashSet<>(existing);
+    String sql = """
+      SELECT MIN(game_start_timestamp), MAX(game_start_timestamp)
+        FROM matches
+       WHERE puuid = ?
+         AND match_id = ANY(?::text[])
+      """;
+    return jdbcTemplate.query(con -> {
+      PreparedStatement ps = con.prepareStatement(sql);
+      ps.setString(1, puuid);
+      ps.setArray(2, con.createArrayOf("text", ids.toArray()));
+      return ps;
+    }, rs -> {
+      if (!rs.next() || rs.getObject(1) == null) {
+        return null;
+      }
+      return new long[] { rs.getLong(1), rs.getLong(2) };
+    });
+  }
+
+  /**
+   * Reads one page of a player's matches, newest first, by keyset: the page starts strictly after
+   * {@code after} in {@code (game_start_timestamp, match_id)} order, so any page costs one index range
+   * scan on {@code matches_puuid_start_idx} no matter how deep it is.
+   *
+   * @param puuid  the player's PUUID
+   * @param fields JSON field names to return, as in the {@link Match} JSON; empty for all of them.
+   *               {@code metadata.matchId} and {@code gameStartTimestamp} are always included
+   * @param after  cursor of the last match of the previous page, or {@code null} for the first page
+   * @param since  if set, only matches that started after this epoch-millis timestamp
+   * @param limit  maximum number of matches
+   * @return the page; {@code nextCursor} is set when more matches may follow
+   * @throws IllegalArgumentException if a field is unknown
+   */
+  public MatchPage findPage(String puuid, List<String> fields, MatchPage.Cursor after, Long since, int limit) {
+    Map<String, Column> projection = new LinkedHashMap<>();
+    projection.put("metadata.matchId", PAGE_COLUMNS.get("metadata.matchId"));
+    projection.put("gameStartTimestamp", PAGE_COLUMNS.get("gameStartTimestamp"));
+    for (String field : fields.isEmpty() ? PAGE_COLUMNS.keySet() : fields) {
+      Column column = PAGE_COLUMNS.get(field);
+      if (column == null) {
+        throw new IllegalArgumentException("Unknown field: " + field + " (allowed: " + String.join(", ", PAGE_COLUMNS.keySet()) + ")");
+      }
+      projection.put(field, column);
+    }
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    int i = 0;
+    for (Column column : projection.values()) {
+      sql.append(i++ == 0 ? "" : ", ").append(column.name());
+    }
+    sql.append(" FROM matches WHERE puuid = ?");
+    List<Object> params = new ArrayList<>();
+    params.add(puuid);
+    if (since != null) {
+      sql.append(" AND game_start_timestamp > ?");
+      params.add(since);
+    }
+    if (after != null) {
+      sql.append(" AND (game_start_timestamp, match_id) < (?, ?)");
+      params.add(after.gameStartTimestamp());
+      params.add(after.matchId());
+    }
+    sql.append(" ORDER BY game_start_timestamp DESC, match_id DESC LIMIT ?");
+    // one extra row tells whether another page follows
+    params.add(limit + 1);
+
+    List<Map<String, Object>> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+      Map<String, Object> row = new LinkedHashMap<>();
+      int col = 1;
+      for (Map.Entry<String, Column> e : projection.entrySet()) {
+        row.put(e.getKey(), read(rs, col++, e.getValue().type()));
+      }
+      return row;
+    }, params.toArray());
+
+    String next = null;
+    if (rows.size() > limit) {
+      rows = rows.subList(0, limit);
+      Map<String, Object> last = rows.get(limit - 1);
+      next = new MatchPage.Cursor((Long) last.get("gameStartTimestamp"), (String) last.get("metadata.matchId")).encode();
+    }
+    return new MatchPage(rows, next);
+  }
+
+  private static Object read(ResultSet rs, int col, ColumnType type) throws SQLException {
+    Object value = switch (type) {
+      case TEXT   -> rs.getString(col);
+      case INT    -> rs.getInt(col);
+      case BIGINT -> rs.getLong(col);
+      case BOOL   -> rs.getBoolean(col);
+      case DOUBLE -> rs.getDouble(col);
+    };
+    return rs.wasNull() ? null : value;
+  }
+
+  /**
+   * Streams matches to {@code handler} one row at a time through a server-side cursor, so memory use
+   * does not grow with the table. pgjdbc only honours the fetch size inside a transaction; callers
+   * must run this with auto-commit off (e.g. in a read-only {@code TransactionTemplate}).
+   *
+   * @param puuid      only this player's matches, or {@code null} for all matches
+   * @param columns    SQL select list
+   * @param withBuilds also join each row's {@code player_builds} row (item columns are null when missing)
+   * @param fetchSize  rows per round trip
+   * @param handler    receives each row
+   */
+  public void streamMatches(String puuid, String columns, boolean withBuilds, int fetchSize, RowCallbackHandler handler) {
+    String sql = "SELECT " + columns + " FROM matches"
+      + (withBuilds ? " LEFT JOIN player_builds USING (match_id, puuid)" : "")
+      + (puuid == null ? "" : " WHERE puuid = ?");
+    jdbcTemplate.query(con -> {
+      PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      ps.setFetchSize(fetchSize);
+      if (puuid != null) {
+        ps.setString(1, puuid);
+      }
+      return ps;
+    }, handler);
   }
-  
 
   /**
    * Pulls the last 20 matches from database.
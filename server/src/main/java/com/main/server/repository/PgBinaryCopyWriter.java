@@ -0,0 +1,79 @@
+package com.main.server.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes rows in PostgreSQL's binary {@code COPY} format onto a stream.
+ *
+ * Each row is started with {@link #row(int)} and followed by exactly that many field calls, in the
+ * column order of the {@code COPY} statement; field types must match the target columns exactly
+ * (binary COPY does no casting).
+ */
+final class PgBinaryCopyWriter {
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+  private final DataOutputStream out;
+  private long rows;
+
+  PgBinaryCopyWriter(OutputStream target) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+    out.write(SIGNATURE);
+    out.writeInt(0); // flags
+    out.writeInt(0); // header extension length
+  }
+
+  void row(int fields) throws IOException {
+    out.writeShort(fields);
+    rows++;
+  }
+
+  void text(String value) throws IOException {
+    if (value == null) {
+      nul();
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  void int4(int value) throws IOException {
+    out.writeInt(4);
+    out.writeInt(value);
+  }
+
+  void int8(long value) throws IOException {
+    out.writeInt(8);
+    out.writeLong(value);
+  }
+
+  void float8(double value) throws IOException {
+    out.writeInt(8);
+    out.writeDouble(value);
+  }
+
+  void bool(boolean value) throws IOException {
+    out.writeInt(1);
+    out.writeByte(value ? 1 : 0);
+  }
+
+  void nul() throws IOException {
+    out.writeInt(-1);
+  }
+
+  long rows() {
+    return rows;
+  }
+
+  /**
+   * Writes the trailer and closes the underlying stream, which ends the {@code COPY}.
+   */
+  void finish() throws IOException {
+    out.writeShort(-1);
+    out.close();
+  }
+}
@@ -1,13 +1,14 @@
 package com.main.server.repository;
 
-import java.util.HashSet;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -20,8 +21,7 @@ public class PlayerBuildRepository {
   @Autowired
   private JdbcTemplate jdbcTemplate;
 
-  public int save(PlayerBuild build) {
-    String sql = """
+  private static final String INSERT_SQL = """
         INSERT INTO player_builds (
           match_id, puuid,
           item0, item1, item2, item3,
@@ -30,8 +30,9 @@ public class PlayerBuildRepository {
         ON CONFLICT (match_id, puuid) DO NOTHING
         """;
 
+  public int save(PlayerBuild build) {
     try {
-      return jdbcTemplate.update(sql,
+      return jdbcTemplate.update(INSERT_SQL,
         build.getMatchId(),
         build.getPuuid(),
         build.getItem0(),
@@ -56,6 +57,48 @@ public class PlayerBuildRepository {
     }
   }
 
+  /**
+   * Inserts several builds with a single JDBC batch. Rows that already exist are left untouched.
+   *
+   * @param builds rows to insert (typically every participant of a downloaded match)
+   * @return per-row update counts as reported by the driver ({@code SUCCESS_NO_INFO} once rewritten into multi-row inserts)
+   */
+  public int[] saveAll(List<PlayerBuild> builds) {
+    if (builds.isEmpty()) {
+      return new int[0];
+    }
+    try {
+      return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+          PlayerBuild b = builds.get(i);
+          ps.setString(1, b.getMatchId());
+          ps.setString(2, b.getPuuid());
+          int[] items = b.toArray();
+          for (int slot = 0; slot < items.length; slot++) {
+            ps.setInt(3 + slot, items[slot]);
+          }
+        }
+
+        @Override
+        public int getBatchSize() {
+          return builds.size();
+        }
+      });
+    } catch (DataAccessException dae) {
+      logger.error(
+        "Failed to save batch of {} PlayerBuilds (first match_id={}): {}",
+        builds.size(),
+        builds.get(0).getMatchId(),
+        dae.getRootCause() != null
+            ? dae.getRootCause().getMessage()
+            : dae.getMessage(),
+        dae
+      );
+      throw dae;
+    }
+  }
+
   public PlayerBuild findByMatchIdAndPuuid(String matchId, String puuid) {
     String sql = "SELECT * FROM player_builds WHERE match_id = ? AND puuid = ?";
     try {
@@ -68,18 +111,4 @@ public class PlayerBuildRepository {
       return null;
     }
   }
-
-  public Set<String> findMatchIdsByPuuid(String puuid) {
-    String sql = """
-      SELECT match_id
-        FROM player_builds
-        WHERE puuid = ?
-      """;
-    List<String> ids = jdbcTemplate.queryForList(
-      sql,
-      String.class,
-      puuid
-    );
-    return new HashSet<>(ids);
-  }
 }
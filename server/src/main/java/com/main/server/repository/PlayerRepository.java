@@ -66,8 +66,65 @@ public class PlayerRepository {
     }
   }
 
+  /**
+   * Returns the player with this Riot ID (case-insensitive) if their account was checked against
+   * Riot within {@code maxAgeMs}, otherwise {@code null}.
+   */
+  public Player findFreshByRiotId(String gameName, String tagLine, long maxAgeMs) {
+    String sql = """
+      SELECT * FROM players
+       WHERE lower(game_name) = lower(?) AND lower(tag_line) = lower(?)
+         AND account_checked_at > now() - ? * INTERVAL '1 millisecond'
+       LIMIT 1
+      """;
+    List<Player> found = jdbcTemplate.query(sql, new PlayerRowMapper(), gameName, tagLine, maxAgeMs);
+    return found.isEmpty() ? null : found.get(0);
+  }
 
+  /**
+   * Returns the player if their account (Riot ID) was checked within {@code maxAgeMs}, otherwise {@code null}.
+   */
+  public Player findFreshAccount(String puuid, long maxAgeMs) {
+    String sql = """
+      SELECT * FROM players
+       WHERE puuid = ? AND account_checked_at > now() - ? * INTERVAL '1 millisecond'
+      """;
+    List<Player> found = jdbcTemplate.query(sql, new PlayerRowMapper(), puuid, maxAgeMs);
+    return found.isEmpty() ? null : found.get(0);
+  }
 
-  
+  /**
+   * Returns the player if their summoner profile was checked within {@code maxAgeMs}, otherwise {@code null}.
+   */
+  public Player findFreshProfile(String puuid, long maxAgeMs) {
+    String sql = """
+      SELECT * FROM players
+       WHERE puuid = ? AND profile_checked_at > now() - ? * INTERVAL '1 millisecond'
+      """;
+    List<Player> found = jdbcTemplate.query(sql, new PlayerRowMapper(), puuid, maxAgeMs);
+    return found.isEmpty() ? null : found.get(0);
+  }
 
+  /**
+   * Stores the Riot ID of an account just returned by Riot and marks it as freshly checked.
+   */
+  public int upsertAccount(Player player) {
+    String sql = """
+      INSERT INTO players (puuid, game_name, tag_line, account_checked_at)
+      VALUES (?, ?, ?, now())
+      ON CONFLICT (puuid) DO UPDATE SET
+        game_name = EXCLUDED.game_name,
+        tag_line = EXCLUDED.tag_line,
+        account_checked_at = now()
+      """;
+    return jdbcTemplate.update(sql, player.getPuuid(), player.getGameName(), player.getTagLine());
+  }
+
+  /**
+   * Stores the profile icon just returned by Riot for a known player and marks it as freshly checked.
+   */
+  public int updateProfile(String puuid, String profileIconId) {
+    String sql = "UPDATE players SET profile_picture = ?, profile_checked_at = now() WHERE puuid = ?";
+    return jdbcTemplate.update(sql, profileIconId, puuid);
+  }
 }
@@ -64,4 +64,37 @@ public class RankRepository {
       return new ArrayList<>();
     }
   }
+
+  /**
+   * Returns PUUIDs to start a ladder crawl from: ranked solo players first, highest tier and LP
+   * first, followed by any other known players.
+   *
+   * @param limit maximum number of PUUIDs
+   * @return distinct PUUIDs in seed order
+   */
+  public List<String> findSeedPuuids(int limit) {
+    String sql = """
+      SELECT puuid
+        FROM (
+          SELECT r.puuid,
+                 0 AS source,
+                 CASE r.tier
+                   WHEN 'CHALLENGER'  THEN 9 WHEN 'GRANDMASTER' THEN 8 WHEN 'MASTER'  THEN 7
+                   WHEN 'DIAMOND'     THEN 6 WHEN 'EMERALD'     THEN 5 WHEN 'PLATINUM' THEN 4
+                   WHEN 'GOLD'        THEN 3 WHEN 'SILVER'      THEN 2 WHEN 'BRONZE'  THEN 1
+                   ELSE 0
+                 END AS tier_order,
+                 r.league_points
+            FROM rank_info r
+           WHERE r.queue_type = 'RANKED_SOLO_5x5'
+          UNION ALL
+          SELECT p.puuid, 1, 0, 0
+            FROM players p
+           WHERE NOT EXISTS (SELECT 1 FROM rank_info r WHERE r.puuid = p.puuid AND r.queue_type = 'RANKED_SOLO_5x5')
+        ) seeds
+       ORDER BY source, tier_order DESC, league_points DESC
+       LIMIT ?
+      """;
+    return jdbcTemplate.queryForList(sql, String.class, limit);
+  }
 }
@@ -0,0 +1,77 @@
+package com.main.server.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.main.server.mapper.SyncStateRowMapper;
+import com.main.server.model.SyncState;
+
+/**
+ * Repository for the `player_sync_state` table, which tracks how much of each player's
+ * match history has been cached.
+ */
+@Repository
+public class SyncStateRepository {
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  public SyncState findByPuuid(String puuid) {
+    String sql = "SELECT * FROM player_sync_state WHERE puuid = ?";
+    try {
+      return jdbcTemplate.queryForObject(sql, new SyncStateRowMapper(), puuid);
+    } catch (org.springframework.dao.EmptyResultDataAccessException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Widens the synced range of a player to include {@code [oldest, newest]}. Only valid when the
+   * window is contiguous with the stored range; otherwise use {@link #resetWindow}.
+   *
+   * @param puuid     the player's PUUID
+   * @param oldest    start timestamp (ms) of the oldest game in the synced window
+   * @param newest    start timestamp (ms) of the newest game in the synced window
+   * @param exhausted whether Riot returned no further history before {@code oldest}
+   * @return number of rows affected
+   */
+  public int recordWindow(String puuid, long oldest, long newest, boolean exhausted) {
+    String sql = """
+      INSERT INTO player_sync_state (
+        puuid, newest_game_start, oldest_game_start, history_exhausted, updated_at
+      ) VALUES (?, ?, ?, ?, now())
+      ON CONFLICT (puuid) DO UPDATE SET
+        newest_game_start = GREATEST(player_sync_state.newest_game_start, EXCLUDED.newest_game_start),
+        oldest_game_start = LEAST(player_sync_state.oldest_game_start, EXCLUDED.oldest_game_start),
+        history_exhausted = player_sync_state.history_exhausted OR EXCLUDED.history_exhausted,
+        updated_at = now()
+      """;
+    return jdbcTemplate.update(sql, puuid, newest, oldest, exhausted);
+  }
+
+  /**
+   * Replaces the synced range of a player with {@code [oldest, newest]}, e.g. after a gap in the
+   * history was detected.
+   */
+  public int resetWindow(String puuid, long oldest, long newest) {
+    String sql = """
+      INSERT INTO player_sync_state (
+        puuid, newest_game_start, oldest_game_start, history_exhausted, updated_at
+      ) VALUES (?, ?, ?, FALSE, now())
+      ON CONFLICT (puuid) DO UPDATE SET
+        newest_game_start = EXCLUDED.newest_game_start,
+        oldest_game_start = EXCLUDED.oldest_game_start,
+        history_exhausted = FALSE,
+        updated_at = now()
+      """;
+    return jdbcTemplate.update(sql, puuid, newest, oldest);
+  }
+
+  /**
+   * Marks the player's history as fully synced without moving the range.
+   */
+  public int markExhausted(String puuid) {
+    String sql = "UPDATE player_sync_state SET history_exhausted = TRUE, updated_at = now() WHERE puuid = ?";
+    return jdbcTemplate.update(sql, puuid);
+  }
+}
@@ -0,0 +1,72 @@
+package com.main.server.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.main.server.model.MatchTimeline;
+import com.main.server.store.PackedInts;
+
+/**
+ * Repository for the `match_timelines` table. Each row holds the whole per-minute series of one
+ * participant, packed with {@link PackedInts}, instead of one row per frame.
+ */
+@Repository
+public class TimelineRepository {
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private static final String INSERT_SQL = """
+        INSERT INTO match_timelines (
+          match_id, puuid, participant_id, frame_interval_ms, gold, xp, cs
+        ) VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (match_id, puuid) DO NOTHING
+        """;
+
+  private static final RowMapper<MatchTimeline> ROW_MAPPER = (rs, rowNum) -> new MatchTimeline(
+    rs.getString("match_id"),
+    rs.getString("puuid"),
+    rs.getInt("participant_id"),
+    rs.getInt("frame_interval_ms"),
+    PackedInts.unpack(rs.getBytes("gold")),
+    PackedInts.unpack(rs.getBytes("xp")),
+    PackedInts.unpack(rs.getBytes("cs")));
+
+  /**
+   * Inserts the series of every participant of a match with a single JDBC batch.
+   */
+  public int[] saveAll(List<MatchTimeline> timelines) {
+    if (timelines.isEmpty()) {
+      return new int[0];
+    }
+    return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        MatchTimeline t = timelines.get(i);
+        ps.setString(1, t.getMatchId());
+        ps.setString(2, t.getPuuid());
+        ps.setInt(3, t.getParticipantId());
+        ps.setInt(4, t.getFrameIntervalMs());
+        ps.setBytes(5, PackedInts.pack(t.getGold()));
+        ps.setBytes(6, PackedInts.pack(t.getXp()));
+        ps.setBytes(7, PackedInts.pack(t.getCs()));
+      }
+
+      @Override
+      public int getBatchSize() {
+        return timelines.size();
+      }
+    });
+  }
+
+  public List<MatchTimeline> findByMatchId(String matchId) {
+    String sql = "SELECT * FROM match_timelines WHERE match_id = ? ORDER BY participant_id";
+    return jdbcTemplate.query(sql, ROW_MAPPER, matchId);
+  }
+}
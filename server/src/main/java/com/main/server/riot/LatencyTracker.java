@@ -0,0 +1,57 @@
+package com.main.server.riot;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent response times per key (e.g. region + endpoint) and answers percentile
+ * queries over them. Percentiles are recomputed every {@code RECOMPUTE_EVERY} samples rather than on
+ * every query, so reads are a field load.
+ */
+public class LatencyTracker {
+  private static final int SAMPLES = 256;
+  private static final int MIN_SAMPLES = 20;
+  private static final int RECOMPUTE_EVERY = 16;
+
+  private final double percentile;
+  private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+  /**
+   * @param percentile the percentile reported by {@link #percentileMs}, in (0, 1)
+   */
+  public LatencyTracker(double percentile) {
+    this.percentile = percentile;
+  }
+
+  public void record(String key, long millis) {
+    rings.computeIfAbsent(key, k -> new Ring()).record(millis);
+  }
+
+  /**
+   * @return the configured percentile of recent latencies for {@code key}, or {@code -1} while
+   *         fewer than {@value #MIN_SAMPLES} samples have been recorded
+   */
+  public long percentileMs(String key) {
+    Ring ring = rings.get(key);
+    return ring == null ? -1 : ring.cached;
+  }
+
+  private final class Ring {
+    private final long[] samples = new long[SAMPLES];
+    private int next;
+    private int count;
+    private volatile long cached = -1;
+
+    synchronized void record(long millis) {
+      samples[next] = millis;
+      next = (next + 1) % SAMPLES;
+      count = Math.min(count + 1, SAMPLES);
+      if (count >= MIN_SAMPLES && next % RECOMPUTE_EVERY == 0) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        cached = sorted[Math.min(count - 1, (int) (count * percentile))];
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.main.server.riot;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * In-process cache for lookups that can legitimately come back empty (e.g. a Riot ID that does not
+ * exist).
+ *
+ * Found and not-found results are both cached, each with its own TTL, so repeated lookups of a
+ * missing name stop costing a Riot request as well. Entries read after {@code refreshAfter} are
+ * reloaded in the background with {@code reloader} while the current value keeps being served, so hot
+ * keys are refreshed ahead of expiry instead of stalling a caller. The reloader should go to the
+ * source of truth: reloading through another cache level would just hand back the same value until
+ * that level expires. Concurrent loads of the same key share one future.
+ *
+ * @param <K> lookup key; must implement {@code equals}/{@code hashCode}
+ * @param <V> cached value; shared between callers, so it should be treated as read-only
+ */
+public class LookupCache<K, V> {
+  private final AsyncLoadingCache<K, Optional<V>> cache;
+
+  /**
+   * @param loader       loads a missing key; completes with {@link Optional#empty()} when it does not exist
+   * @param reloader     refreshes a cached key, in the same way
+   * @param hitTtl       how long found values are kept
+   * @param missTtl      how long not-found results are kept
+   * @param refreshAfter age after which a read triggers a background reload; must be shorter than both
+   *                     TTLs, or entries would expire before they could be refreshed
+   * @param maxSize      upper bound on cached keys
+   */
+  public LookupCache(Function<K, CompletableFuture<Optional<V>>> loader,
+                     Function<K, CompletableFuture<Optional<V>>> reloader,
+                     Duration hitTtl, Duration missTtl, Duration refreshAfter, long maxSize) {
+    if (refreshAfter.compareTo(hitTtl) >= 0 || refreshAfter.compareTo(missTtl) >= 0) {
+      throw new IllegalArgumentException("refreshAfter (" + refreshAfter + ") must be shorter than the hit ("
+          + hitTtl + ") and miss (" + missTtl + ") TTLs");
+    }
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfter(new Expiry<K, Optional<V>>() {
+        @Override
+        public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+          return (value.isPresent() ? hitTtl : missTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+          return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+          return currentDuration;
+        }
+      })
+      .refreshAfterWrite(refreshAfter)
+      .buildAsync(new AsyncCacheLoader<K, Optional<V>>() {
+        @Override
+        public CompletableFuture<Optional<V>> asyncLoad(K key, Executor executor) {
+          return loader.apply(key);
+        }
+
+        @Override
+        public CompletableFuture<Optional<V>> asyncReload(K key, Optional<V> oldValue, Executor executor) {
+          return reloader.apply(key);
+        }
+      });
+  }
+
+  /**
+   * Returns the cached result for {@code key}, loading it if absent. A failed load is not cached.
+   */
+  public CompletableFuture<Optional<V>> get(K key) {
+    return cache.get(key);
+  }
+
+  public long size() {
+    return cache.synchronous().estimatedSize();
+  }
+}
@@ -0,0 +1,193 @@
+package com.main.server.riot;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * One circuit breaker per Riot region.
+ *
+ * Each region keeps the outcome of its last {@code riot.circuit.window} calls. Once at least
+ * {@code riot.circuit.min-calls} have been recorded and the share of failures (5xx, timeouts,
+ * connection errors) reaches {@code riot.circuit.failure-rate}, the region is opened: calls are refused
+ * immediately for {@code riot.circuit.open-ms} instead of queueing behind a degraded host. After that,
+ * a single probe call is let through; its outcome closes the breaker or opens it again. Only the probe
+ * can do that: {@link #tryAcquire} hands it a token, and late answers to calls sent before the region
+ * opened are ignored. 4xx answers, including 429, are not failures of the region and count as
+ * successes here.
+ */
+@Component
+public class RiotCircuitBreaker {
+  private static final Logger logger = LoggerFactory.getLogger(RiotCircuitBreaker.class);
+  private static final long NO_PROBE = 0;
+
+  private final Map<String, Region> regions = new ConcurrentHashMap<>();
+  private final int window;
+  private final int minCalls;
+  private final double failureRate;
+  private final long openMs;
+
+  public RiotCircuitBreaker(
+      @Value("${riot.circuit.window:50}") int window,
+      @Value("${riot.circuit.min-calls:10}") int minCalls,
+      @Value("${riot.circuit.failure-rate:0.5}") double failureRate,
+      @Value("${riot.circuit.open-ms:30000}") long openMs) {
+    this.window = window;
+    this.minCalls = minCalls;
+    this.failureRate = failureRate;
+    this.openMs = openMs;
+  }
+
+  /**
+   * Admission of one call.
+   *
+   * @param waitMs {@code 0} if the call may be sent, otherwise the milliseconds until the breaker will
+   *               let a probe through
+   * @param token  pass back to {@link #onSuccess}/{@link #onFailure}; identifies the half-open probe
+   */
+  public record Permit(long waitMs, long token) {
+    public boolean granted() {
+      return waitMs == 0;
+    }
+  }
+
+  /**
+   * Asks whether a call to {@code region} may be sent now.
+   */
+  public Permit tryAcquire(String region) {
+    return region(region).tryAcquire(System.currentTimeMillis());
+  }
+
+  /**
+   * Like {@link #tryAcquire} but never takes the half-open probe, so callers can fail fast before
+   * queueing a request.
+   *
+   * @return {@code 0} unless the region is open, otherwise the milliseconds it stays open
+   */
+  public long openFor(String region) {
+    return region(region).openFor(System.currentTimeMillis());
+  }
+
+  public void onSuccess(String region, Permit permit) {
+    region(region).record(false, permit.token(), System.currentTimeMillis());
+  }
+
+  public void onFailure(String region, Permit permit) {
+    region(region).record(true, permit.token(), System.currentTimeMillis());
+  }
+
+  /**
+   * State and recent failure rate of every region seen so far, e.g. for the health endpoint.
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    regions.forEach((name, r) -> out.put(name, r.stats()));
+    return out;
+  }
+
+  private Region region(String region) {
+    return regions.computeIfAbsent(region, Region::new);
+  }
+
+  private enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final class Region {
+    private final String name;
+    private final boolean[] outcomes = new boolean[window];
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private boolean probeInFlight;
+    private long probeToken;
+
+    Region(String name) {
+      this.name = name;
+    }
+
+    synchronized Permit tryAcquire(long now) {
+      if (state == State.CLOSED) {
+        return new Permit(0, NO_PROBE);
+      }
+      if (state == State.OPEN) {
+        if (now < openUntil) {
+          return new Permit(openUntil - now, NO_PROBE);
+        }
+        state = State.HALF_OPEN;
+        probeInFlight = false;
+      }
+      if (probeInFlight) {
+        return new Permit(Math.max(1, openMs / 10), NO_PROBE);
+      }
+      probeInFlight = true;
+      return new Permit(0, ++probeToken);
+    }
+
+    synchronized long openFor(long now) {
+      return state == State.OPEN && now < openUntil ? openUntil - now : 0;
+    }
+
+    synchronized void record(boolean failed, long token, long now) {
+      if (state != State.CLOSED && (token == NO_PROBE || token != probeToken || !probeInFlight)) {
+        // a call sent before the region opened, or a probe that already reported
+        return;
+      }
+      if (state == State.HALF_OPEN) {
+        probeInFlight = false;
+        if (failed) {
+          open(now);
+          logger.warn("Riot region {} probe failed; circuit open for another {}ms", name, openMs);
+        } else {
+          state = State.CLOSED;
+          reset();
+          logger.info("Riot region {} recovered; circuit closed", name);
+        }
+        return;
+      }
+      if (outcomes[next] && recorded == window) {
+        failures--;
+      }
+      outcomes[next] = failed;
+      if (failed) {
+        failures++;
+      }
+      next = (next + 1) % window;
+      recorded = Math.min(recorded + 1, window);
+      if (state == State.CLOSED && recorded >= minCalls && failures >= failureRate * recorded) {
+        logger.warn("Riot region {} is failing ({} of last {} calls); circuit open for {}ms", name, failures, recorded, openMs);
+        open(now);
+      }
+    }
+
+    private void open(long now) {
+      state = State.OPEN;
+      openUntil = now + openMs;
+      reset();
+    }
+
+    private void reset() {
+      Arrays.fill(outcomes, false);
+      next = 0;
+      recorded = 0;
+      failures = 0;
+    }
+
+    synchronized Map<String, Object> stats() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("state", state.name().toLowerCase());
+      m.put("recentCalls", recorded);
+      m.put("recentFailures", failures);
+      if (state == State.OPEN) {
+        m.put("openForMs", Math.max(0, openUntil - System.currentTimeMillis()));
+      }
+      return m;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.main.server.riot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Shared, non-blocking HTTP client for every call made to Riot's APIs.
+ *
+ * A single {@link HttpClient} is kept for the lifetime of the application so that TLS sessions and
+ * keep-alive connections are pooled per host (one pool per routing/platform host such as
+ * {@code americas.api.riotgames.com} or {@code na1.api.riotgames.com}). HTTP/2 is negotiated when the
+ * host supports it, which lets concurrent requests to the same host share one connection.
+ * Responses are requested gzip-compressed and decoded here, so callers always get the raw JSON bytes.
+ */
+@Component
+public class RiotClient {
+
+  private final HttpClient http;
+  private final ExecutorService executor;
+  private final Duration readTimeout;
+
+  public RiotClient(
+      @Value("${riot.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+      @Value("${riot.http.read-timeout-ms:10000}") long readTimeoutMs) {
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = Executors.newCachedThreadPool(r -> {
+      Thread t = new Thread(r, "riot-http-" + threadCount.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    this.http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+      .followRedirects(HttpClient.Redirect.NEVER)
+      .executor(executor)
+      .build();
+    this.readTimeout = Duration.ofMillis(readTimeoutMs);
+  }
+
+  /**
+   * Sends an asynchronous GET to {@code uri}.
+   *
+   * @param uri fully built Riot API URI
+   * @return future completed with the status, headers and decoded body of the response
+   */
+  public CompletableFuture<RiotResponse> get(URI uri) {
+    HttpRequest request = HttpRequest.newBuilder(uri)
+      .GET()
+      .timeout(readTimeout)
+      .header("Accept", "application/json")
+      .header("Accept-Encoding", "gzip")
+      .build();
+
+    return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+      .thenApply(res -> new RiotResponse(res.statusCode(), res.headers(), decode(res)));
+  }
+
+  /**
+   * Returns the body of {@code res}, inflating it when the server answered with gzip.
+   */
+  private static byte[] decode(HttpResponse<byte[]> res) {
+    boolean gzip = res.headers().firstValue("Content-Encoding")
+      .map(v -> v.equalsIgnoreCase("gzip"))
+      .orElse(false);
+    if (!gzip) {
+      return res.body();
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(res.body()))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to decompress Riot response", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,14 @@
+package com.main.server.riot;
+
+/**
+ * Scheduling class of a Riot request. Lower ordinals are served first and may use more of the
+ * rate-limit budget (see {@link RiotRequestScheduler}).
+ */
+public enum RiotPriority {
+  /** A user is waiting on the response (account lookups, rank, match IDs for a search). */
+  INTERACTIVE,
+  /** Background caching triggered by a search (missing match downloads). */
+  SYNC,
+  /** Bulk work with no user waiting (crawls, backfills). */
+  BULK
+}
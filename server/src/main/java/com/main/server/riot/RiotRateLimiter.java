@@ -0,0 +1,209 @@
+package com.main.server.riot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client-side mirror of Riot's rate limits.
+ *
+ * Riot enforces an application limit per region and a method limit per (region, endpoint), and reports
+ * both on every response through {@code X-App-Rate-Limit}/{@code X-Method-Rate-Limit} (e.g.
+ * {@code "20:1,100:120"}, i.e. limit:seconds) and the matching {@code -Count} headers. This limiter
+ * starts from configured app defaults, then learns the real limits and current counts from those
+ * headers. Each region has its own state, so traffic to one region never delays another.
+ *
+ * The limiter never blocks: callers get the time to wait back, and {@link RiotRequestScheduler}
+ * turns that into delayed, prioritized dispatch.
+ */
+@Component
+public class RiotRateLimiter {
+  private static final Logger logger = LoggerFactory.getLogger(RiotRateLimiter.class);
+
+  private final Map<String, RegionLimiter> regions = new ConcurrentHashMap<>();
+  private final String appDefaults;
+
+  public RiotRateLimiter(@Value("${riot.rate-limit.app-defaults:20:1,100:120}") String appDefaults) {
+    this.appDefaults = appDefaults;
+  }
+
+  /**
+   * Attempts to take a permit without waiting.
+   *
+   * @param ceiling fraction (0–1] of every window this caller may fill; lower-priority work passes
+   *                less than 1 so that the remainder stays reserved for higher-priority requests
+   * @return {@code 0} if the permit was taken, otherwise how many milliseconds to wait before retrying
+   */
+  public long tryAcquire(String region, String method, double ceiling) {
+    return region(region).tryAcquire(method, ceiling, System.currentTimeMillis());
+  }
+
+  /**
+   * Feeds the rate-limit headers of a response back into the limiter.
+   */
+  public void update(String region, String method, RiotResponse res) {
+    RegionLimiter limiter = region(region);
+    long now = System.currentTimeMillis();
+    res.header("X-App-Rate-Limit").ifPresent(v ->
+      limiter.syncApp(parse(v), res.header("X-App-Rate-Limit-Count").map(RiotRateLimiter::parse).orElse(null), now));
+    res.header("X-Method-Rate-Limit").ifPresent(v ->
+      limiter.syncMethod(method, parse(v), res.header("X-Method-Rate-Limit-Count").map(RiotRateLimiter::parse).orElse(null), now));
+  }
+
+  /**
+   * Records a 429 so that no further requests are released for the affected scope until
+   * {@code retryAfterSeconds} has passed. {@code X-Rate-Limit-Type: application} blocks the whole
+   * region; {@code method} and {@code service} only block the endpoint.
+   */
+  public void onRateLimited(String region, String method, long retryAfterSeconds, String limitType) {
+    long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retryAfterSeconds);
+    boolean appWide = "application".equalsIgnoreCase(limitType);
+    region(region).block(appWide ? null : method, until);
+    logger.warn("Riot 429 ({}) for {} {}; backing off {}s", limitType, region, method, retryAfterSeconds);
+  }
+
+  private RegionLimiter region(String region) {
+    return regions.computeIfAbsent(region, r -> new RegionLimiter(parse(appDefaults)));
+  }
+
+  /**
+   * Parses Riot's {@code "limit:seconds,limit:seconds"} header format into {@code [limit, seconds]} pairs.
+   */
+  static List<long[]> parse(String header) {
+    List<long[]> out = new ArrayList<>();
+    for (String part : header.split(",")) {
+      String[] kv = part.trim().split(":");
+      if (kv.length == 2) {
+        out.add(new long[] { Long.parseLong(kv[0].trim()), Long.parseLong(kv[1].trim()) });
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Limits for one region: the application windows plus the windows of each method called there.
+   * All state is guarded by the instance lock, which is only ever held for a few comparisons.
+   */
+  private static final class RegionLimiter {
+    private List<Window> app;
+    private final Map<String, List<Window>> methods = new HashMap<>();
+    private final Map<String, Long> methodBlockedUntil = new HashMap<>();
+    private long appBlockedUntil;
+
+    RegionLimiter(List<long[]> appLimits) {
+      this.app = windows(appLimits, List.of());
+    }
+
+    synchronized long tryAcquire(String method, double ceiling, long now) {
+      long blocked = Math.max(appBlockedUntil, methodBlockedUntil.getOrDefault(method, 0L));
+      if (blocked > now) {
+        return blocked - now;
+      }
+      List<Window> methodWindows = methods.getOrDefault(method, List.of());
+      long wait = Math.max(waitFor(app, ceiling, now), waitFor(methodWindows, ceiling, now));
+      if (wait > 0) {
+        return wait;
+      }
+      for (Window w : app) w.count++;
+      for (Window w : methodWindows) w.count++;
+      return 0;
+    }
+
+    synchronized void syncApp(List<long[]> limits, List<long[]> counts, long now) {
+      app = windows(limits, app);
+      sync(app, counts, now);
+    }
+
+    synchronized void syncMethod(String method, List<long[]> limits, List<long[]> counts, long now) {
+      List<Window> updated = windows(limits, methods.getOrDefault(method, List.of()));
+      sync(updated, counts, now);
+      methods.put(method, updated);
+    }
+
+    synchronized void block(String method, long until) {
+      if (method == null) {
+        appBlockedUntil = Math.max(appBlockedUntil, until);
+      } else {
+        methodBlockedUntil.merge(method, until, Math::max);
+      }
+    }
+
+    /**
+     * Rebuilds the window list for {@code limits}, carrying over the state of windows whose
+     * duration is unchanged.
+     */
+    private static List<Window> windows(List<long[]> limits, List<Window> previous) {
+      List<Window> out = new ArrayList<>(limits.size());
+      for (long[] l : limits) {
+        Window w = new Window(l[0], TimeUnit.SECONDS.toMillis(l[1]));
+        for (Window old : previous) {
+          if (old.durationMs == w.durationMs) {
+            w.count = old.count;
+            w.start = old.start;
+          }
+        }
+        out.add(w);
+      }
+      return out;
+    }
+
+    /**
+     * Raises local counts to Riot's view of them; requests from other processes sharing the key
+     * or still in flight would otherwise be invisible here.
+     */
+    private static void sync(List<Window> windows, List<long[]> counts, long now) {
+      if (counts == null) {
+        return;
+      }
+      for (long[] c : counts) {
+        for (Window w : windows) {
+          if (w.durationMs == TimeUnit.SECONDS.toMillis(c[1])) {
+            w.roll(now);
+            w.count = Math.max(w.count, c[0]);
+          }
+        }
+      }
+    }
+
+    private static long waitFor(List<Window> windows, double ceiling, long now) {
+      long wait = 0;
+      for (Window w : windows) {
+        w.roll(now);
+        if (w.count >= Math.max(1, (long) (w.limit * ceiling))) {
+          wait = Math.max(wait, w.start + w.durationMs - now);
+        }
+      }
+      return wait;
+    }
+  }
+
+  /**
+   * A fixed window that, like Riot's, starts with the first request made after the previous one expired.
+   */
+  private static final class Window {
+    final long limit;
+    final long durationMs;
+    long count;
+    long start;
+
+    Window(long limit, long durationMs) {
+      this.limit = limit;
+      this.durationMs = durationMs;
+    }
+
+    void roll(long now) {
+      if (now >= start + durationMs) {
+        count = 0;
+        start = now;
+      }
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.main.server.riot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Releases Riot requests in priority order on top of {@link RiotRateLimiter}.
+ *
+ * Every request waits in the queue of its {@link RiotPriority}. On each dispatch pass the queues are
+ * walked from {@code INTERACTIVE} to {@code BULK}, and each waiting request is released as soon as
+ * the limiter grants its (region, method) a permit. Lower classes may only fill part of every
+ * rate-limit window: {@code SYNC} stops at {@code 1 - interactive-reserve} and {@code BULK} at
+ * {@code 1 - interactive-reserve - sync-reserve}. Interactive lookups therefore always have capacity
+ * left, even during a large backfill, while background work uses whatever else is free.
+ *
+ * Requests that cannot be released are re-checked once the earliest blocking window frees up.
+ * Queue depth and wait time per class are available through {@link #stats()}.
+ */
+@Component
+public class RiotRequestScheduler {
+  private final RiotRateLimiter limiter;
+  private final Map<RiotPriority, Double> ceilings = new EnumMap<>(RiotPriority.class);
+  private final Map<RiotPriority, ArrayDeque<Pending>> queues = new EnumMap<>(RiotPriority.class);
+  private final Map<RiotPriority, ClassStats> stats = new EnumMap<>(RiotPriority.class);
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "riot-scheduler");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private ScheduledFuture<?> wakeUp;
+  private long wakeUpAt = Long.MAX_VALUE;
+
+  public RiotRequestScheduler(
+      RiotRateLimiter limiter,
+      @Value("${riot.scheduler.interactive-reserve:0.2}") double interactiveReserve,
+      @Value("${riot.scheduler.sync-reserve:0.2}") double syncReserve) {
+    this.limiter = limiter;
+    ceilings.put(RiotPriority.INTERACTIVE, 1.0);
+    ceilings.put(RiotPriority.SYNC, 1.0 - interactiveReserve);
+    ceilings.put(RiotPriority.BULK, 1.0 - interactiveReserve - syncReserve);
+    for (RiotPriority p : RiotPriority.values()) {
+      queues.put(p, new ArrayDeque<>());
+      stats.put(p, new ClassStats());
+    }
+  }
+
+  /**
+   * Queues a request and returns a future that completes once it has been granted a rate-limit
+   * permit and may be sent.
+   */
+  public CompletableFuture<Void> schedule(RiotPriority priority, String region, String method) {
+    Pending pending = new Pending(region, method, System.nanoTime());
+    synchronized (this) {
+      queues.get(priority).addLast(pending);
+    }
+    dispatch();
+    return pending.ready;
+  }
+
+  /**
+   * Releases every queued request the limiter currently allows, highest class first, and arms a
+   * timer for the earliest moment a still-waiting request could be released.
+   */
+  private void dispatch() {
+    List<Pending> released = new ArrayList<>();
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      long minDelay = Long.MAX_VALUE;
+      for (RiotPriority p : RiotPriority.values()) {
+        double ceiling = ceilings.get(p);
+        ClassStats s = stats.get(p);
+        Iterator<Pending> it = queues.get(p).iterator();
+        while (it.hasNext()) {
+          Pending pending = it.next();
+          long delay = limiter.tryAcquire(pending.region, pending.method, ceiling);
+          if (delay <= 0) {
+            it.remove();
+            s.record(System.nanoTime() - pending.enqueuedAt);
+            released.add(pending);
+          } else {
+            minDelay = Math.min(minDelay, delay);
+          }
+        }
+      }
+      if (minDelay != Long.MAX_VALUE) {
+        armWakeUp(now + minDelay);
+      }
+    }
+    // complete outside the lock: dependent stages start the HTTP request on this thread
+    for (Pending pending : released) {
+      pending.ready.complete(null);
+    }
+  }
+
+  private void armWakeUp(long at) {
+    if (wakeUp != null && !wakeUp.isDone() && wakeUpAt <= at) {
+      return;
+    }
+    if (wakeUp != null) {
+      wakeUp.cancel(false);
+    }
+    wakeUpAt = at;
+    wakeUp = timer.schedule(() -> {
+      synchronized (this) {
+        wakeUpAt = Long.MAX_VALUE;
+      }
+      dispatch();
+    }, Math.max(1, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Per-class queue depth and wait-time counters, e.g. for the health endpoint.
+   */
+  public synchronized Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    for (RiotPriority p : RiotPriority.values()) {
+      ClassStats s = stats.get(p);
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("queueDepth", queues.get(p).size());
+      m.put("dispatched", s.dispatched.get());
+      m.put("avgWaitMs", s.dispatched.get() == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(s.totalWaitNanos.get() / s.dispatched.get()));
+      m.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(s.maxWaitNanos.get()));
+      m.put("budgetCeiling", ceilings.get(p));
+      out.put(p.name().toLowerCase(), m);
+    }
+    return out;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    timer.shutdownNow();
+  }
+
+  private static final class Pending {
+    final String region;
+    final String method;
+    final long enqueuedAt;
+    final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    Pending(String region, String method, long enqueuedAt) {
+      this.region = region;
+      this.method = method;
+      this.enqueuedAt = enqueuedAt;
+    }
+  }
+
+  private static final class ClassStats {
+    final AtomicLong dispatched = new AtomicLong();
+    final AtomicLong totalWaitNanos = new AtomicLong();
+    final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void record(long waitNanos) {
+      dispatched.incrementAndGet();
+      totalWaitNanos.addAndGet(waitNanos);
+      maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+  }
+}
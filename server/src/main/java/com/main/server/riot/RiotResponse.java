@@ -0,0 +1,35 @@
+package com.main.server.riot;
+
+import java.net.http.HttpHeaders;
+import java.util.Optional;
+
+/**
+ * Raw response from a Riot API call: status code, headers and the (already decompressed) body.
+ */
+public class RiotResponse {
+  private final int status;
+  private final HttpHeaders headers;
+  private final byte[] body;
+
+  public RiotResponse(int status, HttpHeaders headers, byte[] body) {
+    this.status = status;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public byte[] getBody() {
+    return body;
+  }
+
+  public Optional<String> header(String name) {
+    return headers.firstValue(name);
+  }
+
+  public boolean isSuccess() {
+    return status >= 200 && status <= 299;
+  }
+}
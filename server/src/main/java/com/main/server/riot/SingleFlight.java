@@ -0,0 +1,72 @@
+package com.main.server.riot;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution.
+ *
+ * While a call for a key is in flight, later callers receive the same future instead of starting
+ * another call. Successful results can optionally be kept for a short TTL so that bursts arriving just
+ * after completion are served without a new call. Failures are never cached.
+ *
+ * @param <K> key type (e.g. endpoint + arguments)
+ * @param <V> result type; shared between callers, so it should be treated as read-only
+ */
+public class SingleFlight<K, V> {
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Cache<K, V> results;
+
+  /**
+   * @param resultTtl how long completed results are reused; {@link Duration#ZERO} disables result caching
+   * @param maxResults upper bound on cached results
+   */
+  public SingleFlight(Duration resultTtl, long maxResults) {
+    this.results = resultTtl.isZero() ? null : Caffeine.newBuilder()
+      .expireAfterWrite(resultTtl)
+      .maximumSize(maxResults)
+      .build();
+  }
+
+  /**
+   * Returns the cached or in-flight result for {@code key}, or starts {@code call} if there is none.
+   */
+  public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+    if (results != null) {
+      V cached = results.getIfPresent(key);
+      if (cached != null) {
+        return CompletableFuture.completedFuture(cached);
+      }
+    }
+
+    CompletableFuture<V> promise = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+    if (existing != null) {
+      return existing;
+    }
+
+    CompletableFuture<V> started;
+    try {
+      started = call.get();
+    } catch (RuntimeException e) {
+      started = CompletableFuture.failedFuture(e);
+    }
+    started.whenComplete((value, err) -> {
+      if (err == null && results != null) {
+        results.put(key, value);
+      }
+      inFlight.remove(key, promise);
+      if (err != null) {
+        promise.completeExceptionally(err);
+      } else {
+        promise.complete(value);
+      }
+    });
+    return promise;
+  }
+}
@@ -0,0 +1,123 @@
+package com.main.server.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.main.server.model.Match;
+import com.main.server.model.PlayerBuild;
+import com.main.server.repository.MatchBulkLoader;
+import com.main.server.store.RawMatchStore;
+
+/**
+ * Rebuilds {@code matches} and {@code player_builds} from the raw match store without touching the
+ * Riot API, e.g. after a parser fix or when a new database is pointed at an existing store.
+ *
+ * Every stored payload is parsed with all participants and streamed through {@link MatchBulkLoader},
+ * so the whole re-parse is one {@code COPY} and one merge per table. Only one re-parse runs at a time,
+ * on its own thread.
+ */
+@Service
+public class BackfillService {
+  private static final Logger logger = LoggerFactory.getLogger(BackfillService.class);
+
+  private final RawMatchStore rawMatchStore;
+  private final MatchParser matchParser;
+  private final MatchBulkLoader bulkLoader;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong parsed = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private volatile MatchBulkLoader.Result lastResult;
+  private volatile String lastError;
+
+  public BackfillService(RawMatchStore rawMatchStore, MatchParser matchParser, MatchBulkLoader bulkLoader) {
+    this.rawMatchStore = rawMatchStore;
+    this.matchParser = matchParser;
+    this.bulkLoader = bulkLoader;
+  }
+
+  /**
+   * Starts re-parsing every stored match in the background.
+   *
+   * @param replace whether rows already in the database are overwritten with the new parse
+   * @return {@code false} if a re-parse is already running or the raw store is disabled
+   */
+  public boolean startReparse(boolean replace) {
+    if (!rawMatchStore.isEnabled() || !running.compareAndSet(false, true)) {
+      return false;
+    }
+    Thread t = new Thread(() -> {
+      try {
+        reparse(replace);
+      } finally {
+        running.set(false);
+      }
+    }, "match-reparse");
+    t.setDaemon(true);
+    t.start();
+    return true;
+  }
+
+  private void reparse(boolean replace) {
+    parsed.set(0);
+    skipped.set(0);
+    lastError = null;
+    logger.info("Re-parsing {} stored matches (replace={})", rawMatchStore.size(), replace);
+    try {
+      lastResult = bulkLoader.load(sink -> rawMatchStore.forEach((matchId, json) -> {
+        MatchParser.Result result;
+        try {
+          result = matchParser.parse(json, p -> true);
+        } catch (IOException e) {
+          skipped.incrementAndGet();
+          logger.warn("Skipping stored match {}: {}", matchId, e.getMessage());
+          return;
+        }
+        List<Match> matches = result.getMatches();
+        List<PlayerBuild> builds = result.getBuilds();
+        try {
+          for (int i = 0; i < matches.size(); i++) {
+            sink.add(matches.get(i), builds.get(i));
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+        parsed.incrementAndGet();
+      }), replace);
+    } catch (Exception e) {
+      lastError = e.getMessage();
+      logger.error("Re-parse of stored matches failed: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Progress of the current or last re-parse.
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("running", running.get());
+    out.put("matchesParsed", parsed.get());
+    out.put("matchesSkipped", skipped.get());
+    MatchBulkLoader.Result result = lastResult;
+    if (result != null) {
+      out.put("lastRowsStaged", result.staged());
+      out.put("lastMatchesWritten", result.matches());
+      out.put("lastBuildsWritten", result.builds());
+    }
+    if (lastError != null) {
+      out.put("lastError", lastError);
+    }
+    return out;
+  }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -20,6 +21,9 @@ public class ChampionService {
   private final Map<Integer, ChampionDto> champions = new ConcurrentHashMap<>();
   private String ddragonVersion;
 
+  @Value("${riot.ddragon.base-url:https://ddragon.leagueoflegends.com}")
+  private String ddragonBaseUrl;
+
   @SuppressWarnings("unchecked")
   @PostConstruct
   public void init() {
@@ -27,15 +31,15 @@ public class ChampionService {
 
     // fetch DDragon versions
     List<String> versions = rest.getForObject(
-      "https://ddragon.leagueoflegends.com/api/versions.json",
+      ddragonBaseUrl + "/api/versions.json",
       List.class
     );
     ddragonVersion = versions.get(0);
 
     // load champion.json
     String url = String.format(
-      "https://ddragon.leagueoflegends.com/cdn/%s/data/en_US/champion.json",
-      ddragonVersion
+      "%s/cdn/%s/data/en_US/champion.json",
+      ddragonBaseUrl, ddragonVersion
     );
     JsonNode root = rest.getForObject(url, JsonNode.class);
     JsonNode data = root.path("data");
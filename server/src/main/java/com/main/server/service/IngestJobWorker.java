@@ -0,0 +1,162 @@
+package com.main.server.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.main.server.model.IngestJob;
+import com.main.server.repository.IngestJobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the jobs of the {@code ingest_jobs} table.
+ *
+ * Every instance polls the table and claims only as many jobs as it has free worker slots, so a burst
+ * of searches simply lengthens the queue instead of being rejected, and adding instances adds
+ * throughput. Failed jobs are retried with exponential backoff (or after Riot's {@code Retry-After}
+ * on a 429, or once the region's circuit breaker closes) and parked as {@code failed} after
+ * {@code riot.jobs.max-attempts}. Jobs held by an instance that stopped responding are released once
+ * their lease expires.
+ */
+@Component
+public class IngestJobWorker {
+  private static final Logger logger = LoggerFactory.getLogger(IngestJobWorker.class);
+
+  private final IngestJobRepository jobs;
+  private final RiotService riotService;
+  private final String workerId = ManagementFactory.getRuntimeMXBean().getName();
+  private final int maxAttempts;
+  private final long backoffMs;
+  private final long maxBackoffMs;
+  private final long leaseMs;
+  private final Semaphore slots;
+  private final ExecutorService executor;
+
+  public IngestJobWorker(
+      IngestJobRepository jobs,
+      RiotService riotService,
+      @Value("${riot.jobs.workers:4}") int workers,
+      @Value("${riot.jobs.max-attempts:5}") int maxAttempts,
+      @Value("${riot.jobs.backoff-ms:30000}") long backoffMs,
+      @Value("${riot.jobs.max-backoff-ms:3600000}") long maxBackoffMs,
+      @Value("${riot.jobs.lease-ms:900000}") long leaseMs) {
+    this.jobs = jobs;
+    this.riotService = riotService;
+    this.maxAttempts = maxAttempts;
+    this.backoffMs = backoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.leaseMs = leaseMs;
+    this.slots = new Semaphore(workers);
+    AtomicInteger n = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(workers, r -> {
+      Thread t = new Thread(r, "ingest-worker-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Queues caching of {@code matchIds} for a player. Returns immediately.
+   */
+  public void enqueueNewMatches(String puuid, String region, List<String> matchIds) {
+    if (!matchIds.isEmpty()) {
+      jobs.enqueue(IngestJob.KIND_NEW_MATCHES, puuid, region, matchIds);
+    }
+  }
+
+  /**
+   * Queues caching of the next page of a player's older history. Returns immediately.
+   */
+  public void enqueueOlderMatches(String puuid, String region) {
+    jobs.enqueue(IngestJob.KIND_OLDER_MATCHES, puuid, region, List.of());
+  }
+
+  @Scheduled(fixedDelayString = "${riot.jobs.poll-interval-ms:1000}")
+  public void poll() {
+    int free = slots.availablePermits();
+    if (free == 0) {
+      return;
+    }
+    List<IngestJob> claimed;
+    try {
+      claimed = jobs.claim(workerId, free);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to claim ingest jobs: {}", e.getMessage());
+      return;
+    }
+    for (IngestJob job : claimed) {
+      slots.acquireUninterruptibly();
+      executor.execute(() -> {
+        try {
+          run(job);
+        } finally {
+          slots.release();
+        }
+      });
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${riot.jobs.lease-check-ms:60000}")
+  public void releaseExpired() {
+    int released = jobs.releaseExpired(leaseMs);
+    if (released > 0) {
+      logger.warn("Released {} ingest job(s) with an expired lease", released);
+    }
+  }
+
+  private void run(IngestJob job) {
+    try {
+      switch (job.getKind()) {
+        case IngestJob.KIND_NEW_MATCHES   -> riotService.syncNewMatches(job.getMatchIds(), job.getPuuid(), job.getRegion());
+        case IngestJob.KIND_OLDER_MATCHES -> riotService.syncOlderMatches(job.getPuuid(), job.getRegion());
+        default -> throw new IllegalArgumentException("Unknown ingest job kind " + job.getKind());
+      }
+      if (jobs.complete(job.getId(), workerId, job.getAttempts()) == 0) {
+        logger.warn("Ingest job {} finished after its lease was released; left to its new owner", job);
+      }
+    } catch (Exception e) {
+      Throwable cause = RiotService.unwrap(e);
+      String error = String.valueOf(cause.getMessage());
+      if (job.getAttempts() >= maxAttempts || cause instanceof IllegalArgumentException) {
+        logger.error("Ingest job {} failed permanently: {}", job, error);
+        if (jobs.fail(job.getId(), workerId, job.getAttempts(), error) == 0) {
+          logger.warn("Ingest job {} lost its lease; not marking it failed", job);
+        }
+      } else {
+        long delay = retryDelay(job.getAttempts(), cause);
+        logger.warn("Ingest job {} failed, retrying in {}ms: {}", job, delay, error);
+        if (jobs.retry(job.getId(), workerId, job.getAttempts(), delay, error) == 0) {
+          logger.warn("Ingest job {} lost its lease; not rescheduling it", job);
+        }
+      }
+    }
+  }
+
+  private long retryDelay(int attempts, Throwable cause) {
+    if (cause instanceof RiotService.Riot429Exception e) {
+      return TimeUnit.SECONDS.toMillis(e.retryAfterSeconds());
+    }
+    if (cause instanceof RiotService.RiotUnavailableException e) {
+      return Math.max(e.retryAfterMs(), backoffMs);
+    }
+    long delay = backoffMs << Math.min(attempts - 1, 20);
+    return Math.min(delay, maxBackoffMs);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // unfinished jobs stay 'running' and are picked up again once their lease expires
+    executor.shutdownNow();
+  }
+}
@@ -6,6 +6,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -34,6 +35,9 @@ public class ItemService {
   private final RestTemplate rest;
   private final ObjectMapper mapper;
 
+  @Value("${riot.ddragon.base-url:https://ddragon.leagueoflegends.com}")
+  private String ddragonBaseUrl;
+
 
 
   public ItemService(RestTemplateBuilder restBuilder) {
@@ -59,7 +63,7 @@ public class ItemService {
   public void init() {
     // Only fetch the DataDragon version on startup
     List<String> versions = rest.getForObject(
-        "https://ddragon.leagueoflegends.com/api/versions.json",
+        ddragonBaseUrl + "/api/versions.json",
         List.class
     );
     if (versions == null || versions.isEmpty()) {
@@ -79,8 +83,8 @@ public class ItemService {
    */
   private ItemDto loadSingleItem(int id) {
     String url = String.format(
-      "https://ddragon.leagueoflegends.com/cdn/%s/data/en_US/item.json",
-      version
+      "%s/cdn/%s/data/en_US/item.json",
+      ddragonBaseUrl, version
     );
 
     return rest.execute(
@@ -0,0 +1,234 @@
+package com.main.server.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.main.server.model.Match;
+import com.main.server.model.PlayerBuild;
+
+/**
+ * Streaming parser for Riot's Match-V5 payload (/lol/match/v5/matches/{matchId}).
+ *
+ * Reads the {@code metadata}/{@code info} headers and each participant token by token, keeping only
+ * the handful of fields we persist. Nested objects we don't use ({@code challenges}, {@code perks},
+ * {@code teams}, ...) are skipped without being materialized, and {@link Match}/{@link PlayerBuild}
+ * objects are only built for the participants accepted by the caller's filter.
+ */
+@Component
+public class MatchParser {
+  private final JsonFactory factory = new JsonFactory();
+  private final ChampionService championService;
+
+  public MatchParser(ChampionService championService) {
+    this.championService = championService;
+  }
+
+  /**
+   * Parses a raw match payload.
+   *
+   * @param json   full match JSON as returned by Riot
+   * @param wanted decides, by PUUID, which participants are turned into rows
+   * @return the matches and builds of the accepted participants (possibly empty)
+   * @throws IOException if the payload is not valid JSON
+   */
+  public Result parse(byte[] json, Predicate<String> wanted) throws IOException {
+    Result result = new Result();
+    String matchId = null;
+    long gameStartTimestamp = 0;
+    long gameDuration = 0;
+    String gameMode = null;
+    int queueId = 0;
+
+    try (JsonParser p = factory.createParser(json)) {
+      expect(p.nextToken(), JsonToken.START_OBJECT);
+      String section;
+      while ((section = p.nextFieldName()) != null) {
+        JsonToken t = p.nextToken();
+        if ("metadata".equals(section) && t == JsonToken.START_OBJECT) {
+          String field;
+          while ((field = p.nextFieldName()) != null) {
+            p.nextToken();
+            if ("matchId".equals(field)) {
+              matchId = p.getText();
+            } else {
+              p.skipChildren();
+            }
+          }
+        } else if ("info".equals(section) && t == JsonToken.START_OBJECT) {
+          String field;
+          while ((field = p.nextFieldName()) != null) {
+            p.nextToken();
+            switch (field) {
+              case "gameStartTimestamp" -> gameStartTimestamp = p.getValueAsLong();
+              case "gameDuration"       -> gameDuration = p.getValueAsLong();
+              case "gameMode"           -> gameMode = p.getValueAsString();
+              case "queueId"            -> queueId = p.getValueAsInt();
+              case "participants"       -> readParticipants(p, wanted, result);
+              default                   -> p.skipChildren();
+            }
+          }
+        } else {
+          p.skipChildren();
+        }
+      }
+    }
+
+    // game-level fields can appear after "participants", so they are applied once the payload is read
+    for (Match m : result.matches) {
+      m.setMatchId(matchId);
+      m.setGameStartTimestamp(gameStartTimestamp);
+      m.setGameDuration(gameDuration);
+      m.setGameMode(gameMode);
+      m.setQueueId(queueId);
+
+      double totalCS = m.getTotalMinionsKilled() + m.getNeutralMinionsKilled();
+      m.setCsPerMin(totalCS / (gameDuration / 60.0));
+    }
+    for (PlayerBuild b : result.builds) {
+      b.setMatchId(matchId);
+    }
+    return result;
+  }
+
+  private void readParticipants(JsonParser p, Predicate<String> wanted, Result result) throws IOException {
+    if (p.currentToken() != JsonToken.START_ARRAY) {
+      p.skipChildren();
+      return;
+    }
+    Participant scratch = new Participant();
+    while (p.nextToken() == JsonToken.START_OBJECT) {
+      scratch.reset();
+      String field;
+      while ((field = p.nextFieldName()) != null) {
+        p.nextToken();
+        switch (field) {
+          case "puuid"                       -> scratch.puuid = p.getValueAsString();
+          case "championName"                -> scratch.championName = p.getValueAsString();
+          case "championId"                  -> scratch.championId = p.getValueAsInt();
+          case "teamPosition"                -> scratch.teamPosition = p.getValueAsString();
+          case "win"                         -> scratch.win = p.getValueAsBoolean();
+          case "kills"                       -> scratch.kills = p.getValueAsInt();
+          case "deaths"                      -> scratch.deaths = p.getValueAsInt();
+          case "assists"                     -> scratch.assists = p.getValueAsInt();
+          case "goldEarned"                  -> scratch.goldEarned = p.getValueAsInt();
+          case "goldSpent"                   -> scratch.goldSpent = p.getValueAsInt();
+          case "totalMinionsKilled"          -> scratch.totalMinionsKilled = p.getValueAsInt();
+          case "neutralMinionsKilled"        -> scratch.neutralMinionsKilled = p.getValueAsInt();
+          case "totalDamageDealtToChampions" -> scratch.damageDealtToChampions = p.getValueAsInt();
+          case "totalDamageTaken"            -> scratch.totalDamageTaken = p.getValueAsInt();
+          case "visionScore"                 -> scratch.visionScore = p.getValueAsInt();
+          case "wardsPlaced"                 -> scratch.wardsPlaced = p.getValueAsInt();
+          case "wardsKilled"                 -> scratch.wardsKilled = p.getValueAsInt();
+          case "turretTakedowns"             -> scratch.turretTakedowns = p.getValueAsInt();
+          case "inhibitorTakedowns"          -> scratch.inhibitorTakedowns = p.getValueAsInt();
+          case "item0"                       -> scratch.items[0] = p.getValueAsInt();
+          case "item1"                       -> scratch.items[1] = p.getValueAsInt();
+          case "item2"                       -> scratch.items[2] = p.getValueAsInt();
+          case "item3"                       -> scratch.items[3] = p.getValueAsInt();
+          case "item4"                       -> scratch.items[4] = p.getValueAsInt();
+          case "item5"                       -> scratch.items[5] = p.getValueAsInt();
+          case "item6"                       -> scratch.items[6] = p.getValueAsInt();
+          default                            -> p.skipChildren();
+        }
+      }
+      if (scratch.puuid != null && wanted.test(scratch.puuid)) {
+        result.matches.add(scratch.toMatch(championService.getRoleForChampionId(scratch.championId)));
+        result.builds.add(scratch.toBuild());
+      }
+    }
+  }
+
+  private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+    if (actual != expected) {
+      throw new IOException("Malformed match payload: expected " + expected + " but found " + actual);
+    }
+  }
+
+  /**
+   * Rows extracted from one match payload. Both lists are in participant order.
+   */
+  public static class Result {
+    private final List<Match> matches = new ArrayList<>(10);
+    private final List<PlayerBuild> builds = new ArrayList<>(10);
+
+    public List<Match> getMatches() {
+      return matches;
+    }
+
+    public List<PlayerBuild> getBuilds() {
+      return builds;
+    }
+  }
+
+  /**
+   * Reusable holder for the fields of the participant currently being read.
+   */
+  private static final class Participant {
+    String puuid;
+    String championName;
+    int championId;
+    String teamPosition;
+    boolean win;
+    int kills, deaths, assists;
+    int goldEarned, goldSpent;
+    int totalMinionsKilled, neutralMinionsKilled;
+    int damageDealtToChampions, totalDamageTaken;
+    int visionScore, wardsPlaced, wardsKilled;
+    int turretTakedowns, inhibitorTakedowns;
+    final int[] items = new int[7];
+
+    void reset() {
+      puuid = null;
+      championName = null;
+      championId = 0;
+      teamPosition = null;
+      win = false;
+      kills = deaths = assists = 0;
+      goldEarned = goldSpent = 0;
+      totalMinionsKilled = neutralMinionsKilled = 0;
+      damageDealtToChampions = totalDamageTaken = 0;
+      visionScore = wardsPlaced = wardsKilled = 0;
+      turretTakedowns = inhibitorTakedowns = 0;
+      Arrays.fill(items, 0);
+    }
+
+    Match toMatch(String role) {
+      Match m = new Match();
+      m.setPuuid(puuid);
+      m.setChampionName(championName);
+      m.setChampionId(Integer.toString(championId));
+      m.setTeamPosition(teamPosition);
+      m.setWin(win);
+      m.setKills(kills);
+      m.setDeaths(deaths);
+      m.setAssists(assists);
+      m.setGoldEarned(goldEarned);
+      m.setGoldSpent(goldSpent);
+      m.setTotalMinionsKilled(totalMinionsKilled);
+      m.setNeutralMinionsKilled(neutralMinionsKilled);
+      m.setDamageDealtToChampions(damageDealtToChampions);
+      m.setTotalDamageTaken(totalDamageTaken);
+      m.setVisionScore(visionScore);
+      m.setWardsPlaced(wardsPlaced);
+      m.setWardsKilled(wardsKilled);
+      m.setTurretTakedowns(turretTakedowns);
+      m.setInhibitorTakedowns(inhibitorTakedowns);
+      m.setKda((kills + assists) / Math.max(1.0, deaths));
+      m.setRole(role);
+      return m;
+    }
+
+    PlayerBuild toBuild() {
+      return new PlayerBuild(null, puuid,
+        items[0], items[1], items[2], items[3], items[4], items[5], items[6]);
+    }
+  }
+}
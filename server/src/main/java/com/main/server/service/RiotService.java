@@ -1,208 +1,555 @@
 package com.main.server.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.net.HttpURLConnection;
+import java.io.IOException;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.main.server.factory.Factory;
 import com.main.server.model.Match;
+import com.main.server.model.MatchPage;
+import com.main.server.model.MatchTimeline;
 import com.main.server.model.Player;
 import com.main.server.model.PlayerBuild;
 import com.main.server.model.RankInfo;
+import com.main.server.model.SyncState;
+import com.main.server.repository.LookupMissRepository;
 import com.main.server.repository.MatchRepository;
 import com.main.server.repository.PlayerBuildRepository;
+import com.main.server.repository.PlayerRepository;
 import com.main.server.repository.RankRepository;
-
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.BlockingBucket;
-import io.github.bucket4j.Bucket;
+import com.main.server.repository.SyncStateRepository;
+import com.main.server.repository.TimelineRepository;
+import com.main.server.riot.LatencyTracker;
+import com.main.server.riot.LookupCache;
+import com.main.server.riot.RiotCircuitBreaker;
+import com.main.server.riot.RiotClient;
+import com.main.server.riot.RiotPriority;
+import com.main.server.riot.RiotRateLimiter;
+import com.main.server.riot.RiotRequestScheduler;
+import com.main.server.riot.RiotResponse;
+import com.main.server.riot.SingleFlight;
+import com.main.server.store.FingerprintSet;
+import com.main.server.store.RawMatchStore;
+
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service responsible for interacting with Riot's external APIs to fetch and cache match data.
  * It also supports asynchronous caching and querying of existing match data in Supabase.
+ *
+ * All Riot lookups go through the shared {@link RiotClient} and return {@link CompletableFuture}s,
+ * so independent calls can be issued concurrently over pooled connections.
  */
 @Service
 public class RiotService {
+  private static final Logger logger = LoggerFactory.getLogger(RiotService.class);
 
   @Value("${spring.api.riot.key}")
   private String apiKey;
 
+  /** Base URL of the Riot API; {@code {region}} is replaced by the routing/platform region. */
+  @Value("${riot.api.base-url:https://{region}.api.riotgames.com}")
+  private String apiBaseUrl;
+
   @Autowired private MatchRepository matchRepository;
   @Autowired private RankRepository rankRepository;
+  @Autowired private PlayerRepository playerRepository;
+  @Autowired private LookupMissRepository lookupMissRepository;
+  @Autowired private SyncStateRepository syncStateRepository;
+  @Autowired private TimelineRepository timelineRepository;
   @Autowired private PlayerBuildRepository playerBuildRepository;
-  @Autowired private final ChampionService championService = new ChampionService();
+  @Autowired private RiotClient riotClient;
+  @Autowired private RiotRateLimiter rateLimiter;
+  @Autowired private RiotCircuitBreaker circuitBreaker;
+  @Autowired private RiotRequestScheduler scheduler;
+  @Autowired private MatchParser matchParser;
+  @Autowired private TimelineParser timelineParser;
+  @Autowired private RawMatchStore rawMatchStore;
+  @Autowired private TransactionTemplate transactionTemplate;
   private final ObjectMapper mapper = new ObjectMapper();
 
-  private static final BlockingBucket RIOT_BUCKET = Bucket.builder()
-    .addLimit(Bandwidth.simple(20,  Duration.ofSeconds(1)))
-    .addLimit(Bandwidth.simple(100, Duration.ofMinutes(2)))
-    .build()
-    .asBlocking();
+  // rate-limit keys, one per Riot endpoint
+  private static final String METHOD_ACCOUNT_BY_RIOT_ID  = "account-v1.by-riot-id";
+  private static final String METHOD_ACCOUNT_BY_PUUID    = "account-v1.by-puuid";
+  private static final String METHOD_SUMMONER_BY_PUUID   = "summoner-v4.by-puuid";
+  private static final String METHOD_LEAGUE_BY_PUUID     = "league-v4.entries-by-puuid";
+  private static final String METHOD_MATCH_IDS_BY_PUUID  = "match-v5.ids-by-puuid";
+  private static final String METHOD_MATCH_BY_ID         = "match-v5.match-by-id";
+  private static final String METHOD_MATCH_TIMELINE      = "match-v5.timeline-by-id";
+
+  /** IDs requested for a player with no sync state, and per page of older history. */
+  private static final int RECENT_MATCH_COUNT = 20;
+  /** Riot's maximum page size for match IDs. */
+  private static final int MAX_MATCH_IDS = 100;
+  /** Largest page of cached matches served at once. */
+  private static final int MAX_PAGE_SIZE = 100;
+
+  @Value("${riot.single-flight.result-ttl-ms:2000}")
+  private long singleFlightTtlMs;
+
+  /** Raw response bodies keyed by request URI; shared by concurrent callers of the same endpoint. */
+  private SingleFlight<String, byte[]> riotCalls;
+
+  @Value("${riot.sync.max-in-flight:4}")
+  private int maxInFlight;
+
+  @Value("${riot.ingest.all-participants:true}")
+  private boolean ingestAllParticipants;
+
+  @Value("${riot.retry.max-attempts:3}")
+  private int retryMaxAttempts;
+
+  @Value("${riot.retry.base-ms:200}")
+  private long retryBaseMs;
+
+  @Value("${riot.hedge.enabled:false}")
+  private boolean hedgeEnabled;
+
+  @Value("${riot.hedge.min-delay-ms:50}")
+  private long hedgeMinDelayMs;
+
+  @Value("${riot.hedge.percentile:0.95}")
+  private double hedgePercentile;
+
+  private LatencyTracker latency;
+
+  @Value("${riot.lookup-cache.hit-ttl-ms:600000}")
+  private long lookupHitTtlMs;
+
+  @Value("${riot.lookup-cache.miss-ttl-ms:120000}")
+  private long lookupMissTtlMs;
 
+  @Value("${riot.lookup-cache.refresh-after-ms:60000}")
+  private long lookupRefreshAfterMs;
+
+  @Value("${riot.lookup-cache.max-size:50000}")
+  private long lookupMaxSize;
+
+  @Value("${riot.lookup-cache.db-hit-ttl-ms:86400000}")
+  private long dbHitTtlMs;
+
+  @Value("${riot.lookup-cache.db-miss-ttl-ms:600000}")
+  private long dbMissTtlMs;
+
+  private LookupCache<RiotIdKey, Player> accountsByRiotId;
+  private LookupCache<PuuidKey, Player> accountsByPuuid;
+  private LookupCache<PuuidKey, Player> profilesByPuuid;
+
+  @Value("${riot.sync.known-keys:500000}")
+  private int knownKeysCapacity;
+
+  /**
+   * (match ID, PUUID) pairs known to be stored, including every participant written alongside a
+   * synced player, so most "already synced" checks are answered without a query.
+   */
+  private FingerprintSet knownKeys;
+
+  @PostConstruct
+  public void init() {
+    riotCalls = new SingleFlight<>(Duration.ofMillis(singleFlightTtlMs), 1_000);
+    knownKeys = new FingerprintSet(knownKeysCapacity);
+    latency = new LatencyTracker(hedgePercentile);
+    initLookupCaches();
+  }
 
   /**
-   * Executes the supplied {@link Callable} after consuming a single token from the bucket.  If the
-   * callable throws {@link Riot429Exception} the helper waits the specified {@code Retry‑After}
-   * interval, consumes another token and retries once.
+   * Account and profile lookups are cached on two levels: in process (separate TTLs for found and
+   * not-found results, with refresh-ahead for keys that are still being read) and in the
+   * {@code players}/{@code player_lookup_misses} tables (longer TTLs, shared across instances and
+   * restarts).  Only lookups that miss both levels cost a Riot request.  Refresh-ahead goes straight
+   * to Riot, since the table would keep answering with the same row until its own TTL ran out.
+   */
+  private void initLookupCaches() {
+    Duration hit = Duration.ofMillis(lookupHitTtlMs);
+    Duration miss = Duration.ofMillis(lookupMissTtlMs);
+    Duration refresh = Duration.ofMillis(lookupRefreshAfterMs);
+    Function<RiotIdKey, CompletableFuture<Optional<Player>>> riotIdFromRiot = fromRiot(
+        k -> "riot-id:" + k.gameName() + "#" + k.tagLine(),
+        k -> fetchUserById(k.gameName(), k.tagLine(), k.region()),
+        playerRepository::upsertAccount);
+    accountsByRiotId = new LookupCache<>(twoLevel(
+        k -> playerRepository.findFreshByRiotId(k.gameName(), k.tagLine(), dbHitTtlMs),
+        k -> "riot-id:" + k.gameName() + "#" + k.tagLine(),
+        riotIdFromRiot),
+      riotIdFromRiot, hit, miss, refresh, lookupMaxSize);
+    Function<PuuidKey, CompletableFuture<Optional<Player>>> accountFromRiot = fromRiot(
+        k -> "account:" + k.puuid(),
+        k -> fetchUserByPuuid(k.puuid(), k.region()),
+        playerRepository::upsertAccount);
+    accountsByPuuid = new LookupCache<>(twoLevel(
+        k -> playerRepository.findFreshAccount(k.puuid(), dbHitTtlMs),
+        k -> "account:" + k.puuid(),
+        accountFromRiot),
+      accountFromRiot, hit, miss, refresh, lookupMaxSize);
+    Function<PuuidKey, CompletableFuture<Optional<Player>>> profileFromRiot = fromRiot(
+        k -> "summoner:" + k.region() + ":" + k.puuid(),
+        k -> fetchUserProfileByPuuid(k.puuid(), k.region()),
+        p -> playerRepository.updateProfile(p.getPuuid(), p.getProfileIconId()));
+    profilesByPuuid = new LookupCache<>(twoLevel(
+        k -> playerRepository.findFreshProfile(k.puuid(), dbHitTtlMs),
+        k -> "summoner:" + k.region() + ":" + k.puuid(),
+        profileFromRiot),
+      profileFromRiot, hit, miss, refresh, lookupMaxSize);
+  }
+
+  /**
+   * Sends the request once the scheduler releases a permit for {@code (region, method)} at the given
+   * priority.  If Riot still answers 429, the limiter is told to back off that scope and the request
+   * is re‑queued once; the wait happens on a delayed future, so no thread is parked.
    *
-   * @param task blocking I/O task that performs the HTTP request
-   * @param <T>  type of the value returned by the task
-   * @return result of {@code task.call()}
-   * @throws Exception any exception thrown by the task after one retry attempt
+   * @param priority scheduling class of the request
+   * @param region routing/platform region the request is sent to
+   * @param method rate-limit key of the endpoint (see the {@code METHOD_*} constants)
+   * @param task   starts the HTTP request and returns its pending result
+   * @param <T>    type of the value produced by the task
+   * @return future completed with the task's result, or with the failure after one retry attempt
    */
-  private <T> T withLimit(Callable<T> task) throws Exception {
-      RIOT_BUCKET.consumeUninterruptibly(1);
-      try {
-        return task.call();
-      } 
-      catch (Riot429Exception e) {
-        Thread.sleep(e.retryAfterSeconds() * 1_000L);
-        RIOT_BUCKET.consumeUninterruptibly(1);
-        return task.call();
+  private <T> CompletableFuture<T> withLimit(RiotPriority priority, String region, String method, Supplier<CompletableFuture<T>> task) {
+    return scheduler.schedule(priority, region, method)
+      .thenCompose(v -> task.get())
+      .exceptionallyCompose(e -> {
+        Throwable cause = unwrap(e);
+        if (!(cause instanceof Riot429Exception)) {
+          return CompletableFuture.failedFuture(cause);
+        }
+        return scheduler.schedule(priority, region, method).thenCompose(v -> task.get());
+      });
+  }
+
+  private String apiHost(String region) {
+    return apiBaseUrl.replace("{region}", region);
+  }
+
+  /**
+   * Strips the {@link CompletionException} wrapper added by {@link CompletableFuture} stages.
+   */
+  public static Throwable unwrap(Throwable e) {
+    return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+  }
+
+
+  /**
+   * Performs a GET request to Riot, respecting rate limits and handling HTTP 429.
+   *
+   * Identical concurrent requests (same URI) are coalesced into one call and share its result, which
+   * is also reused for {@code riot.single-flight.result-ttl-ms} after it completes.
+   *
+   * @param priority scheduling class of the request
+   * @param region routing/platform region the request is sent to
+   * @param method rate-limit key of the endpoint
+   * @param uri    Riot API URI, including the {@code api_key} query param
+   * @return future completed with the raw JSON body; fails with {@link Riot429Exception} on an
+   *         unrecoverable 429, {@link RiotUnavailableException} while the region's circuit is open,
+   *         or {@link RiotApiException} on any other non‑2xx status
+   */
+  private CompletableFuture<byte[]> riotFetch(RiotPriority priority, String region, String method, URI uri) {
+    return riotCalls.execute(uri.toString(), () -> fetchWithRetry(priority, region, method, uri, 0));
+  }
+
+  /**
+   * Sends the request, retrying 5xx answers, timeouts and connection errors up to
+   * {@code riot.retry.max-attempts} times in total.  Retries wait a random time between 0 and
+   * {@code riot.retry.base-ms * 2^attempt} (full jitter), so callers that failed together do not
+   * retry together.  Requests to a region whose circuit is open fail immediately instead of queueing.
+   */
+  private CompletableFuture<byte[]> fetchWithRetry(RiotPriority priority, String region, String method, URI uri, int attempt) {
+    long open = circuitBreaker.openFor(region);
+    if (open > 0) {
+      return CompletableFuture.failedFuture(new RiotUnavailableException(region, open));
+    }
+    return withLimit(priority, region, method, () -> send(priority, region, method, uri))
+      .exceptionallyCompose(e -> {
+        Throwable cause = unwrap(e);
+        if (attempt + 1 >= retryMaxAttempts || !isTransient(cause)) {
+          return CompletableFuture.failedFuture(cause);
+        }
+        long delay = 1 + ThreadLocalRandom.current().nextLong(Math.max(1, retryBaseMs << attempt));
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+          .thenCompose(v -> fetchWithRetry(priority, region, method, uri, attempt + 1));
+      });
+  }
+
+  /**
+   * Sends one attempt through the region's circuit breaker and turns the response into a body or a
+   * typed failure.  Every outcome is reported to the breaker; 5xx answers and transport errors count
+   * as failures of the region.
+   */
+  private CompletableFuture<byte[]> send(RiotPriority priority, String region, String method, URI uri) {
+    RiotCircuitBreaker.Permit permit = circuitBreaker.tryAcquire(region);
+    if (!permit.granted()) {
+      return CompletableFuture.failedFuture(new RiotUnavailableException(region, permit.waitMs()));
+    }
+    long start = System.nanoTime();
+    return hedged(priority, region, method, uri).handle((res, err) -> {
+      if (err != null) {
+        circuitBreaker.onFailure(region, permit);
+        throw new CompletionException(unwrap(err));
+      }
+      latency.record(region + " " + method, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      if (res.getStatus() >= 500) {
+        circuitBreaker.onFailure(region, permit);
+      } else {
+        circuitBreaker.onSuccess(region, permit);
       }
+      rateLimiter.update(region, method, res);
+      if (res.getStatus() == 429) {
+        long retry = res.header("Retry-After").map(Long::parseLong).orElse(1L);
+        rateLimiter.onRateLimited(region, method, retry, res.header("X-Rate-Limit-Type").orElse("service"));
+        throw new CompletionException(new Riot429Exception(retry));
+      }
+      if (!res.isSuccess()) {
+        throw new CompletionException(new RiotApiException(res.getStatus(), uri.getPath()));
+      }
+      return res.getBody();
+    });
   }
 
   /**
-   * Reads the full response body (success or error) from {@code con} into a single {@link String}.
-  */
-  private String readBody(HttpURLConnection con) throws Exception {
-      Reader r = new InputStreamReader(
-        con.getResponseCode() > 299 ? con.getErrorStream() : con.getInputStream());
-      try (BufferedReader br = new BufferedReader(r)) {
-        return br.lines().collect(Collectors.joining());
+   * Sends the GET and, for interactive requests when {@code riot.hedge.enabled} is set, sends a second
+   * identical GET if the first has not answered within the recent {@code riot.hedge.percentile}
+   * latency of that endpoint.  The first response wins.  A hedge is only sent if the rate limiter has
+   * a permit to spare right away, so it never delays other requests.
+   */
+  private CompletableFuture<RiotResponse> hedged(RiotPriority priority, String region, String method, URI uri) {
+    CompletableFuture<RiotResponse> primary = riotClient.get(uri);
+    long after = hedgeEnabled && priority == RiotPriority.INTERACTIVE ? latency.percentileMs(region + " " + method) : -1;
+    if (after < 0) {
+      return primary;
+    }
+    CompletableFuture<RiotResponse> result = new CompletableFuture<>();
+    AtomicInteger pending = new AtomicInteger(1);
+    BiConsumer<RiotResponse, Throwable> settle = (res, err) -> {
+      if (err == null) {
+        result.complete(res);
+      } else if (pending.decrementAndGet() == 0) {
+        result.completeExceptionally(err);
       }
+    };
+    primary.whenComplete(settle);
+    CompletableFuture.delayedExecutor(Math.max(after, hedgeMinDelayMs), TimeUnit.MILLISECONDS).execute(() -> {
+      if (result.isDone() || rateLimiter.tryAcquire(region, method, 1.0) > 0) {
+        return;
+      }
+      pending.incrementAndGet();
+      riotClient.get(uri).whenComplete(settle);
+    });
+    return result;
   }
 
+  private static boolean isTransient(Throwable cause) {
+    if (cause instanceof RiotApiException api) {
+      return api.status() >= 500;
+    }
+    return cause instanceof IOException;
+  }
 
   /**
-   * Performs a GET request to Riot, respecting rate limits and handling HTTP 429.
+   * Performs a GET request to Riot and parses the body into a {@link JsonNode} tree.
    *
-   * @param uri Riot API URI, including the {@code api_key} query param
-   * @return parsed {@link JsonNode} body
-   * @throws Exception network I/O errors, JSON parse errors, or unrecoverable 429
-   */
-  private JsonNode riotGet(URI uri) throws Exception {
-    return withLimit(() -> {
-      HttpURLConnection con = (HttpURLConnection) uri.toURL().openConnection();
-      con.setRequestMethod("GET");
-      con.setRequestProperty("Content-Type", "application/json");
-      con.setConnectTimeout(5_000);
-
-      int code = con.getResponseCode();
-      if (code == 429) {
-          long retry = Optional.ofNullable(con.getHeaderField("Retry-After"))
-                                .map(Long::parseLong).orElse(1L);
-          con.disconnect();
-          throw new Riot429Exception(retry);
+   * @param priority scheduling class of the request
+   * @param region routing/platform region the request is sent to
+   * @param method rate-limit key of the endpoint
+   * @param uri    Riot API URI, including the {@code api_key} query param
+   * @return future completed with the parsed body
+   */
+  private CompletableFuture<JsonNode> riotGet(RiotPriority priority, String region, String method, URI uri) {
+    return riotFetch(priority, region, method, uri).thenApply(body -> {
+      try {
+        return mapper.readTree(body);
+      } catch (Exception e) {
+        throw new CompletionException(e);
       }
-      String body = readBody(con);
-      con.disconnect();
-      return mapper.readTree(body);
     });
   }
 
   /**
    * Fetches basic player identifiers (gameName, tagLine, PUUID) using Riot‑ID + tagline.
+   * Results, including 404s, are cached; see {@link #initLookupCaches()}.
    *
    * @param id      Riot username (e.g. "Faker")
    * @param tagLine Tagline (e.g. "KR1")
    * @param region  Platform region (na1, euw1, …)
-   * @return mapped {@link Player}
+   * @return future completed with the mapped {@link Player}, or failed with a 404
+   *         {@link RiotApiException} if the Riot ID does not exist
+   */
+  public CompletableFuture<Player> getUserById(String id, String tagLine, String region) {
+    RiotIdKey key = new RiotIdKey(region, id.toLowerCase(Locale.ROOT), tagLine.toLowerCase(Locale.ROOT));
+    return lookup(accountsByRiotId, key, "riot-id " + id + "#" + tagLine);
+  }
+
+  /**
+   * Fetches basic player identifiers using a PUUID.  Results, including 404s, are cached.
+   *
+   * @param puuid  Riot PUUID
+   * @param region Platform region
    */
-  public Player getUserById(String id, String tagLine, String region) throws Exception {
+  public CompletableFuture<Player> getUserByPuuid(String puuid, String region) {
+    return lookup(accountsByPuuid, new PuuidKey(region, puuid), "account " + puuid);
+  }
+
+  /**
+   * Retrieves profile‑level data (icon ID, level, etc.) from Summoner‑V4 by PUUID.  Results,
+   * including 404s, are cached.
+   */
+  public CompletableFuture<Player> getUserProfileByPuuid(String puuid, String platformRegion) {
+    return lookup(profilesByPuuid, new PuuidKey(platformRegion, puuid), "summoner " + puuid);
+  }
+
+  private CompletableFuture<Player> fetchUserById(String id, String tagLine, String region) {
     URI uri = UriComponentsBuilder
-      .fromUriString("https://" + region + ".api.riotgames.com")
+      .fromUriString(apiHost(region))
       .path("/riot/account/v1/accounts/by-riot-id/{id}/{tag}")
       .queryParam("api_key", apiKey)
       .buildAndExpand(id, tagLine)
       .toUri();
 
-    Map<String, Object> map = mapper.convertValue(riotGet(uri), new TypeReference<>() {});
-    return Factory.mapToUser(map);
+    return riotGet(RiotPriority.INTERACTIVE, region, METHOD_ACCOUNT_BY_RIOT_ID, uri).thenApply(this::toUser);
   }
 
-  /**
-   * Fetches basic player identifiers using a PUUID.
-   *
-   * @param puuid  Riot PUUID
-   * @param region Platform region
-   */
-  public Player getUserByPuuid(String puuid, String region) throws Exception {
+  private CompletableFuture<Player> fetchUserByPuuid(String puuid, String region) {
     URI uri = UriComponentsBuilder
-      .fromUriString("https://" + region + ".api.riotgames.com")
+      .fromUriString(apiHost(region))
       .path("/riot/account/v1/accounts/by-puuid/{puuid}")
       .queryParam("api_key", apiKey)
       .buildAndExpand(puuid)
       .toUri();
 
-    Map<String, Object> map = mapper.convertValue(riotGet(uri), new TypeReference<>() {});
-    return Factory.mapToUser(map);
+    return riotGet(RiotPriority.INTERACTIVE, region, METHOD_ACCOUNT_BY_PUUID, uri).thenApply(this::toUser);
   }
 
-  /**
-   * Retrieves profile‑level data (icon ID, level, etc.) from Summoner‑V4 by PUUID.
-   */
-  public Player getUserProfileByPuuid(String puuid, String platformRegion) throws Exception {
+  private CompletableFuture<Player> fetchUserProfileByPuuid(String puuid, String platformRegion) {
     URI uri = UriComponentsBuilder
-      .fromUriString("https://" + platformRegion + ".api.riotgames.com")
+      .fromUriString(apiHost(platformRegion))
       .path("/lol/summoner/v4/summoners/by-puuid/{puuid}")
       .queryParam("api_key", apiKey)
       .buildAndExpand(puuid)
       .toUri();
 
-    Map<String,Object> map = mapper.convertValue(riotGet(uri), new TypeReference<>(){});
-    return Factory.mapToUser(map);
+    return riotGet(RiotPriority.INTERACTIVE, platformRegion, METHOD_SUMMONER_BY_PUUID, uri).thenApply(this::toUser);
+  }
+
+  /**
+   * Resolves a lookup through its cache and hands out a copy, since callers such as
+   * {@link #getCompletePlayer} modify the returned player.
+   */
+  private <K> CompletableFuture<Player> lookup(LookupCache<K, Player> cache, K key, String what) {
+    return cache.get(key).thenApply(found -> found
+      .map(p -> new Player(p.getPuuid(), p.getGameName(), p.getTagLine(), p.getProfileIconId()))
+      .orElseThrow(() -> new CompletionException(new RiotApiException(404, what))));
+  }
+
+  /**
+   * Builds the loader of a lookup cache: the {@code players} table first, then recorded 404s, then
+   * Riot (see {@link #fromRiot}).
+   */
+  private <K> Function<K, CompletableFuture<Optional<Player>>> twoLevel(
+      Function<K, Player> fromDb, Function<K, String> missKey,
+      Function<K, CompletableFuture<Optional<Player>>> fromRiot) {
+    return key -> {
+      Player stored = fromDb.apply(key);
+      if (stored != null) {
+        return CompletableFuture.completedFuture(Optional.of(stored));
+      }
+      if (lookupMissRepository.isFreshMiss(missKey.apply(key), dbMissTtlMs)) {
+        return CompletableFuture.completedFuture(Optional.empty());
+      }
+      return fromRiot.apply(key);
+    };
   }
 
-  public Player getCompletePlayer(String riotId, String tagLine, String platformRegion, String routingRegion) throws Exception {
+  /**
+   * Asks Riot and writes the answer back to the table (found) or to the miss table (404); failing to
+   * write it back never fails the lookup.  Also used on its own to refresh cached entries.
+   */
+  private <K> Function<K, CompletableFuture<Optional<Player>>> fromRiot(
+      Function<K, String> missKey, Function<K, CompletableFuture<Player>> fetch, Consumer<Player> toDb) {
+    return key -> fetch.apply(key).handle((player, err) -> {
+      String miss = missKey.apply(key);
+      if (err == null) {
+        try {
+          toDb.accept(player);
+        } catch (RuntimeException e) {
+          logger.warn("Failed to store lookup result for {}: {}", miss, e.getMessage());
+        }
+        return Optional.of(player);
+      }
+      Throwable cause = unwrap(err);
+      if (cause instanceof RiotApiException api && api.status() == 404) {
+        try {
+          lookupMissRepository.recordMiss(miss);
+        } catch (RuntimeException e) {
+          logger.warn("Failed to record lookup miss for {}: {}", miss, e.getMessage());
+        }
+        return Optional.empty();
+      }
+      throw new CompletionException(cause);
+    });
+  }
 
-    Player basic = getUserById(riotId, tagLine, routingRegion);
+  private record RiotIdKey(String region, String gameName, String tagLine) {}
+  private record PuuidKey(String region, String puuid) {}
 
-    Player profile = getUserProfileByPuuid(basic.getPuuid(), platformRegion);
+  private Player toUser(JsonNode node) {
+    Map<String, Object> map = mapper.convertValue(node, new TypeReference<>() {});
+    return Factory.mapToUser(map);
+  }
 
-    basic.setProfileIconId(profile.getProfileIconId());
-    return basic;
+  public CompletableFuture<Player> getCompletePlayer(String riotId, String tagLine, String platformRegion, String routingRegion) {
+    return getUserById(riotId, tagLine, routingRegion)
+      .thenCompose(basic -> getUserProfileByPuuid(basic.getPuuid(), platformRegion)
+        .thenApply(profile -> {
+          basic.setProfileIconId(profile.getProfileIconId());
+          return basic;
+        }));
   }
 
   /**
    * Returns all ranked entries (Solo/Duo, Flex, …) for the given PUUID.
    */
-  public List<RankInfo> getRankInfoByPuuid(String puuid, String region) throws Exception {
+  public CompletableFuture<List<RankInfo>> getRankInfoByPuuid(String puuid, String region) {
     URI uri = UriComponentsBuilder
-      .fromUriString("https://" + region + ".api.riotgames.com")
+      .fromUriString(apiHost(region))
       .path("/lol/league/v4/entries/by-puuid/{puuid}")
       .queryParam("api_key", apiKey)
       .buildAndExpand(puuid)
       .toUri();
 
-    List<Map<String,Object>> list = mapper.readValue(
-      riotGet(uri).traverse(),
-      new TypeReference<>() {});
-
-    List<RankInfo> out = new ArrayList<>();
-    for (Map<String, Object> m : list) out.add(Factory.mapToRankInfo(m));
-    return out;
+    return riotGet(RiotPriority.INTERACTIVE, region, METHOD_LEAGUE_BY_PUUID, uri).thenApply(node -> {
+      List<Map<String,Object>> list = mapper.convertValue(node, new TypeReference<>() {});
+      List<RankInfo> out = new ArrayList<>();
+      for (Map<String, Object> m : list) out.add(Factory.mapToRankInfo(m));
+      return out;
+    });
   }
 
 
@@ -212,150 +559,330 @@ public class RiotService {
    * @param puuid  Riot PUUID
    * @param type   Match type filter (e.g. "ranked")
    * @param region Routing region (americas, europe, …)
-   * @param count  Max IDs to return (≤ 100)
+   * @param count  Max IDs to return (≤ 100)
    */
-  public List<String> getRecentMatchIds(String puuid, String type,
-                          String region, int count) throws Exception {
-    URI uri = UriComponentsBuilder
-      .fromUriString("https://" + region + ".api.riotgames.com")
+  public CompletableFuture<List<String>> getRecentMatchIds(String puuid, String type,
+                          String region, int count) {
+    return getRecentMatchIds(puuid, type, region, count, RiotPriority.INTERACTIVE);
+  }
+
+  /**
+   * Returns the most‑recent match IDs for a player, scheduled at the given priority.
+   */
+  public CompletableFuture<List<String>> getRecentMatchIds(String puuid, String type,
+                          String region, int count, RiotPriority priority) {
+    return getMatchIds(puuid, type, region, count, null, null, priority);
+  }
+
+  /**
+   * Returns match IDs for a player within an optional time window, newest first.
+   *
+   * @param startTime only games started at or after this epoch second ({@code null} for no bound)
+   * @param endTime   only games started at or before this epoch second ({@code null} for no bound)
+   */
+  public CompletableFuture<List<String>> getMatchIds(String puuid, String type, String region, int count,
+                          Long startTime, Long endTime, RiotPriority priority) {
+    UriComponentsBuilder builder = UriComponentsBuilder
+      .fromUriString(apiHost(region))
       .path("/lol/match/v5/matches/by-puuid/{puuid}/ids")
       .queryParam("type", type)
-      .queryParam("count", count)
+      .queryParam("count", count);
+    if (startTime != null) {
+      builder.queryParam("startTime", startTime);
+    }
+    if (endTime != null) {
+      builder.queryParam("endTime", endTime);
+    }
+    URI uri = builder
       .queryParam("api_key", apiKey)
       .buildAndExpand(puuid)
       .toUri();
 
-      return mapper.readValue(
-        riotGet(uri).traverse(),
-        new TypeReference<>() {});
+    return riotGet(priority, region, METHOD_MATCH_IDS_BY_PUUID, uri).thenApply(node -> mapper.convertValue(node, new TypeReference<List<String>>() {}));
   }
 
   /**
-   * Downloads full match payload for the given ID.
+   * Returns the ranked match IDs a player has played since their last sync.  Players without sync
+   * state get their {@value #RECENT_MATCH_COUNT} latest IDs; returning players only get games that
+   * started after the newest cached one, which is usually an empty list.
+   *
+   * @param puuid  Riot PUUID
+   * @param region Routing region (americas, europe, …)
    */
-  public JsonNode getMatchById(String matchId, String region) throws Exception {
+  public CompletableFuture<List<String>> getNewMatchIds(String puuid, String region) {
+    SyncState state = syncStateRepository.findByPuuid(puuid);
+    if (state == null) {
+      return getRecentMatchIds(puuid, "ranked", region, RECENT_MATCH_COUNT);
+    }
+    long startTime = state.getNewestGameStart() / 1000 + 1;
+    return getMatchIds(puuid, "ranked", region, MAX_MATCH_IDS, startTime, null, RiotPriority.INTERACTIVE);
+  }
+
+  /**
+   * Returns the full match payload for the given ID. Payloads are read from the local
+   * {@link RawMatchStore} when present; otherwise they are downloaded once and appended to it.
+   *
+   * @return future completed with the raw match JSON, ready for {@link MatchParser}
+   */
+  public CompletableFuture<byte[]> getMatchById(String matchId, String region) {
+    return getMatchById(matchId, region, RiotPriority.SYNC);
+  }
+
+  /**
+   * Returns the full match payload for the given ID, downloading it at the given priority if needed.
+   */
+  public CompletableFuture<byte[]> getMatchById(String matchId, String region, RiotPriority priority) {
+    byte[] stored = rawMatchStore.get(matchId);
+    if (stored != null) {
+      return CompletableFuture.completedFuture(stored);
+    }
+
     URI uri = UriComponentsBuilder
-      .fromUriString("https://" + region + ".api.riotgames.com")
+      .fromUriString(apiHost(region))
       .path("/lol/match/v5/matches/{id}")
       .queryParam("api_key", apiKey)
       .buildAndExpand(matchId)
       .toUri();
 
-    return riotGet(uri);
+    return riotFetch(priority, region, METHOD_MATCH_BY_ID, uri).thenApply(json -> {
+      // the local copy is only a cache; a failed disk write must not fail a download already paid for
+      try {
+        rawMatchStore.put(matchId, json);
+      } catch (RuntimeException e) {
+        logger.warn("Failed to store raw match {}: {}", matchId, e.getMessage());
+      }
+      return json;
+    });
+  }
+
+  /**
+   * Returns the per-minute gold/xp/CS series of every participant of a match.  Stored timelines
+   * are served from the DB; otherwise the timeline is downloaded, stream-parsed and stored first.
+   *
+   * @param matchId Riot match ID
+   * @param region  Routing region (americas, europe, …)
+   */
+  public CompletableFuture<List<MatchTimeline>> getTimeline(String matchId, String region, RiotPriority priority) {
+    List<MatchTimeline> stored = timelineRepository.findByMatchId(matchId);
+    if (!stored.isEmpty()) {
+      return CompletableFuture.completedFuture(stored);
+    }
+
+    URI uri = UriComponentsBuilder
+      .fromUriString(apiHost(region))
+      .path("/lol/match/v5/matches/{id}/timeline")
+      .queryParam("api_key", apiKey)
+      .buildAndExpand(matchId)
+      .toUri();
+
+    return riotFetch(priority, region, METHOD_MATCH_TIMELINE, uri).thenApply(json -> {
+      try {
+        List<MatchTimeline> parsed = timelineParser.parse(json);
+        timelineRepository.saveAll(parsed);
+        return parsed;
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    });
   }
 
   /**
    * Parses a match JSON and saves it to the DB if the player participated.
+   * The payload is streamed, so only the participants being stored are materialized.
+   *
+   * When {@code riot.ingest.all-participants} is enabled every participant is written (one batch per
+   * table), since the download already cost a token.
    *
    * @param matchJson the full match JSON from Riot API
    * @param puuid     the target player's Riot PUUID
+   * @throws IOException if the payload cannot be parsed
+   */
+  public void cacheMatch(byte[] matchJson, String puuid) throws IOException {
+    store(List.of(parse(matchJson, puuid)));
+  }
+
+  /**
+   * Parses a match JSON and saves every participant, regardless of {@code riot.ingest.all-participants}.
+   *
+   * @param matchJson the full match JSON from Riot API
+   * @return the stored rows, e.g. to discover the other players of the match
+   * @throws IOException if the payload cannot be parsed
    */
+  public MatchParser.Result cacheAllParticipants(byte[] matchJson) throws IOException {
+    MatchParser.Result parsed = matchParser.parse(matchJson, p -> true);
+    store(List.of(parsed));
+    return parsed;
+  }
 
-  public void cacheMatch(JsonNode matchJson, String puuid) {
-    JsonNode info = matchJson.get("info");
-    JsonNode meta = matchJson.get("metadata");
-
-    // find the participant for the given puuid
-    for (JsonNode p : info.get("participants")) {
-      if (p.get("puuid").asText().equals(puuid)) {
-        Match m = new Match();
-        m.setMatchId(meta.path("matchId").asText());
-        m.setPuuid(puuid);
-        m.setChampionName(p.path("championName").asText());
-        m.setChampionId(p.path("championId").asText());
-        m.setTeamPosition(p.path("teamPosition").asText());
-        m.setWin(p.path("win").asBoolean());
-
-        m.setKills(p.path("kills").asInt());
-        m.setDeaths(p.path("deaths").asInt());
-        m.setAssists(p.path("assists").asInt());
-
-        m.setGoldEarned(p.path("goldEarned").asInt());
-        m.setGoldSpent(p.path("goldSpent").asInt());
-
-        m.setTotalMinionsKilled(p.path("totalMinionsKilled").asInt());
-        m.setNeutralMinionsKilled(p.path("neutralMinionsKilled").asInt());
-
-        m.setDamageDealtToChampions(p.path("totalDamageDealtToChampions").asInt());
-        m.setTotalDamageTaken(p.path("totalDamageTaken").asInt());
-
-        m.setVisionScore(p.path("visionScore").asInt());
-        m.setWardsPlaced(p.path("wardsPlaced").asInt());
-        m.setWardsKilled(p.path("wardsKilled").asInt());
-
-        m.setTurretTakedowns(p.path("turretTakedowns").asInt());
-        m.setInhibitorTakedowns(p.path("inhibitorTakedowns").asInt());
-
-        m.setGameStartTimestamp(info.path("gameStartTimestamp").asLong());
-        m.setGameDuration(info.path("gameDuration").asLong());
-        m.setGameMode(info.path("gameMode").asText());
-        m.setQueueId(info.path("queueId").asInt());
-
-        double totalCS = m.getTotalMinionsKilled() + m.getNeutralMinionsKilled();
-        double gameDurationSec = info.path("gameDuration").asDouble(); 
-        double csPerMin = totalCS / (gameDurationSec / 60.0);
-        m.setCsPerMin(csPerMin);
-
-        double kda = (m.getKills() + m.getAssists()) / Math.max(1.0, m.getDeaths());
-        m.setKda(kda);
-
-        int champId = p.path("championId").asInt();
-        String role = championService.getRoleForChampionId(champId);
-        m.setRole(role);
-
-        PlayerBuild build = new PlayerBuild(
-          m.getMatchId(),
-          puuid,
-          p.path("item0").asInt(),
-          p.path("item1").asInt(),
-          p.path("item2").asInt(),
-          p.path("item3").asInt(),
-          p.path("item4").asInt(),
-          p.path("item5").asInt(),
-          p.path("item6").asInt()
-        );
-        
-
-        matchRepository.save(m);
-        playerBuildRepository.save(build);
-      }
+  private MatchParser.Result parse(byte[] matchJson, String puuid) throws IOException {
+    return matchParser.parse(matchJson, ingestAllParticipants ? p -> true : puuid::equals);
+  }
+
+  /**
+   * Writes the rows of several parsed matches in one transaction: one JDBC batch for {@code matches}
+   * and one for {@code player_builds}, which the driver sends as multi-row inserts. The stored
+   * (match, player) pairs are then remembered, so later syncs of any of those players skip them.
+   *
+   * @param results parsed matches; empty results are skipped
+   */
+  private void store(List<MatchParser.Result> results) {
+    List<Match> matches = new ArrayList<>();
+    List<PlayerBuild> builds = new ArrayList<>();
+    for (MatchParser.Result r : results) {
+      matches.addAll(r.getMatches());
+      builds.addAll(r.getBuilds());
+    }
+    if (matches.isEmpty()) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(tx -> {
+      matchRepository.saveAll(matches);
+      playerBuildRepository.saveAll(builds);
+    });
+    for (Match m : matches) {
+      knownKeys.add(FingerprintSet.fingerprint(m.getMatchId(), m.getPuuid()));
     }
   }
+
+
   /**
    * Caches only matches that aren't already saved in Supabase.
+   * Pairs already in the in-memory known-key set are skipped without a DB lookup; the rest are
+   * checked with a single query, and whatever is still missing is downloaded concurrently
+   * (see {@link #downloadAndCache}).
    *
    * @param ids   list of match IDs
    * @param puuid the player's PUUID
    * @throws Exception if any match fails to fetch
    */
   public void cacheMissingMatches(List<String> ids, String puuid, String region) throws Exception {
-    Set<String> existingMatches = matchRepository.findExistingMatchIdsForUser(ids, puuid);
-    Set<String> existingBuilds  = playerBuildRepository.findMatchIdsByPuuid(puuid);
-
+    List<String> candidates = new ArrayList<>(ids.size());
     for (String id : ids) {
-        if (existingMatches.contains(id) && existingBuilds.contains(id)) {
-          continue;
+      if (!knownKeys.contains(FingerprintSet.fingerprint(id, puuid))) {
+        candidates.add(id);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return;
+    }
+
+    Set<String> synced = matchRepository.findSyncedMatchIds(candidates, puuid);
+    Queue<String> missing = new ConcurrentLinkedQueue<>();
+    for (String id : candidates) {
+      if (synced.contains(id)) {
+        knownKeys.add(FingerprintSet.fingerprint(id, puuid));
+      } else {
+        missing.add(id);
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+    downloadAndCache(missing, puuid, region).get();
+  }
+
+  /**
+   * Downloads and parses the queued matches with at most {@code riot.sync.max-in-flight} requests
+   * outstanding, then writes everything that was parsed in a single transaction (see {@link #store}).
+   * A failed match does not stop the others, and the matches that did arrive are still stored; the
+   * first failure is reported afterwards so the job is retried for the rest.
+   *
+   * @param ids   match IDs still to download (drained by the lanes)
+   * @param puuid the player's PUUID
+   * @param region routing region to download from
+   * @return future completed when every queued match has been handled and stored
+   */
+  private CompletableFuture<Void> downloadAndCache(Queue<String> ids, String puuid, String region) {
+    AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    Queue<MatchParser.Result> parsed = new ConcurrentLinkedQueue<>();
+    int lanes = Math.max(1, Math.min(maxInFlight, ids.size()));
+    CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+    for (int i = 0; i < lanes; i++) {
+      running[i] = lane(ids, puuid, region, parsed, firstFailure);
+    }
+    return CompletableFuture.allOf(running).thenRun(() -> {
+      store(new ArrayList<>(parsed));
+      Throwable failure = firstFailure.get();
+      if (failure != null) {
+        throw new CompletionException(failure);
+      }
+    });
+  }
+
+  private CompletableFuture<Void> lane(Queue<String> ids, String puuid, String region,
+                                       Queue<MatchParser.Result> parsed, AtomicReference<Throwable> firstFailure) {
+    String id = ids.poll();
+    if (id == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return getMatchById(id, region).handle((json, err) -> {
+      CompletableFuture<Void> next = lane(ids, puuid, region, parsed, firstFailure);
+      try {
+        if (err != null) {
+          throw unwrap(err);
         }
+        parsed.add(parse(json, puuid));
+      } catch (Throwable t) {
+        logger.warn("Failed to cache match {} for {}: {}", id, puuid, t.getMessage());
+        firstFailure.compareAndSet(null, t);
+      }
+      return next;
+    }).thenCompose(next -> next);
+  }
 
-        JsonNode matchJson = getMatchById(id, region);
-        cacheMatch(matchJson, puuid);
+  /**
+   * Caches the new matches returned by {@link #getNewMatchIds} and advances the player's sync state.
+   *
+   * @param ids   IDs from {@link #getNewMatchIds}, newest first
+   * @param puuid the player's PUUID
+   * @param region routing region to download from
+   * @throws Exception if any match fails to fetch; the sync state is left untouched in that case
+   */
+  public void syncNewMatches(List<String> ids, String puuid, String region) throws Exception {
+    if (ids.isEmpty()) {
+      return;
     }
-  } 
+    SyncState before = syncStateRepository.findByPuuid(puuid);
+    cacheMissingMatches(ids, puuid, region);
+
+    long[] range = matchRepository.findTimestampRange(puuid, ids);
+    if (range == null) {
+      return;
+    }
+    if (before != null && ids.size() >= MAX_MATCH_IDS) {
+      // more new games than one ID page holds: the window no longer touches the stored range
+      syncStateRepository.resetWindow(puuid, range[0], range[1]);
+    } else {
+      syncStateRepository.recordWindow(puuid, range[0], range[1], false);
+    }
+  }
 
   /**
-   * Caches matches that aren't saved in Supabase (asynchronously).
-   * @param matchIds ids of matches pulled from request
-   * @param puuid player id of the user
-   * @param routingRegion region to search the matches from.
-   * @return {@link CompletableFuture} if the job is finished.
-   * @throws Exception
+   * Caches the next page of history older than the player's oldest synced game and moves the cursor.
+   *
+   * @param puuid the player's PUUID
+   * @param region routing region to download from
+   * @return {@code false} if there is nothing left to page (no sync state yet, or history exhausted)
+   * @throws Exception if any match fails to fetch
    */
-  @Async("riotTaskExecutor")
-  public CompletableFuture<Void> cacheMissingMatchesAsync(
-          List<String> matchIds, String puuid, String routingRegion) throws Exception {
-            
-    cacheMissingMatches(matchIds, puuid, routingRegion);
-    return CompletableFuture.completedFuture(null);
+  public boolean syncOlderMatches(String puuid, String region) throws Exception {
+    SyncState state = syncStateRepository.findByPuuid(puuid);
+    if (state == null || state.isHistoryExhausted()) {
+      return false;
+    }
+    long endTime = state.getOldestGameStart() / 1000 - 1;
+    List<String> ids = getMatchIds(puuid, "ranked", region, RECENT_MATCH_COUNT, null, endTime, RiotPriority.SYNC).get();
+    if (ids.isEmpty()) {
+      syncStateRepository.markExhausted(puuid);
+      return false;
+    }
+    cacheMissingMatches(ids, puuid, region);
+
+    long[] range = matchRepository.findTimestampRange(puuid, ids);
+    if (range != null) {
+      syncStateRepository.recordWindow(puuid, range[0], range[1], ids.size() < RECENT_MATCH_COUNT);
+    }
+    return true;
   }
 
   /**
@@ -368,6 +895,22 @@ public class RiotService {
     return matchRepository.findByPuuid(puuid);
   }
 
+  /**
+   * Fetches one page of a player's cached matches, newest first.
+   *
+   * @param puuid  the player's Riot PUUID
+   * @param fields JSON field names to include; empty for all
+   * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first page
+   * @param since  if set, only matches that started after this epoch-millis timestamp
+   * @param limit  page size, capped at {@value #MAX_PAGE_SIZE}
+   * @return the page and the cursor of the next one
+   * @throws IllegalArgumentException if the cursor or a field is invalid
+   */
+  public MatchPage getMatchPage(String puuid, List<String> fields, String cursor, Long since, int limit) {
+    MatchPage.Cursor after = cursor == null || cursor.isBlank() ? null : MatchPage.Cursor.decode(cursor);
+    return matchRepository.findPage(puuid, fields, after, since, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+  }
+
   /**
    * Fetches all matches in the database.
    *
@@ -399,4 +942,31 @@ public class RiotService {
     }
     public long retryAfterSeconds() { return retryAfterSeconds; }
   } 
+
+  /**
+   * Thrown when Riot answers with a non‑2xx status other than 429.  Holds the status code so callers
+   * can tell a missing account (404) apart from a Riot‑side failure.
+   */
+  public static class RiotApiException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private final int status;
+    public RiotApiException(int status, String path) {
+        super("HTTP " + status + " from Riot for " + path);
+        this.status = status;
+    }
+    public int status() { return status; }
+  }
+
+  /**
+   * Thrown without contacting Riot while the region's circuit breaker is open.
+   */
+  public static class RiotUnavailableException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private final long retryAfterMs;
+    public RiotUnavailableException(String region, long retryAfterMs) {
+        super("Riot region " + region + " is unavailable; retry in " + Math.max(1, retryAfterMs / 1000) + "s");
+        this.retryAfterMs = retryAfterMs;
+    }
+    public long retryAfterMs() { return retryAfterMs; }
+  }
 }
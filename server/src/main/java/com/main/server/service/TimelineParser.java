@@ -0,0 +1,159 @@
+package com.main.server.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.main.server.model.MatchTimeline;
+
+/**
+ * Streaming parser for Riot's Match-V5 timeline payload (/lol/match/v5/matches/{matchId}/timeline).
+ *
+ * Timelines are roughly ten times the size of a match, almost all of it in each frame's
+ * {@code events} and in the {@code championStats}/{@code damageStats} of every participant frame.
+ * Those are skipped token by token; only gold, xp and CS are read, straight into growable
+ * {@code int[]}s per participant.
+ */
+@Component
+public class TimelineParser {
+  private static final int MAX_PARTICIPANTS = 10;
+
+  private final JsonFactory factory = new JsonFactory();
+
+  /**
+   * Parses a raw timeline payload.
+   *
+   * @param json full timeline JSON as returned by Riot
+   * @return one series per participant, in participant order
+   * @throws IOException if the payload is not valid JSON
+   */
+  public List<MatchTimeline> parse(byte[] json) throws IOException {
+    String matchId = null;
+    String[] puuids = new String[MAX_PARTICIPANTS];
+    Series series = new Series();
+    int frameInterval = 60_000;
+
+    try (JsonParser p = factory.createParser(json)) {
+      if (p.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Malformed timeline payload: expected an object");
+      }
+      String section;
+      while ((section = p.nextFieldName()) != null) {
+        JsonToken t = p.nextToken();
+        if ("metadata".equals(section) && t == JsonToken.START_OBJECT) {
+          String field;
+          while ((field = p.nextFieldName()) != null) {
+            p.nextToken();
+            if ("matchId".equals(field)) {
+              matchId = p.getText();
+            } else if ("participants".equals(field) && p.currentToken() == JsonToken.START_ARRAY) {
+              int i = 0;
+              while (p.nextToken() == JsonToken.VALUE_STRING) {
+                if (i < MAX_PARTICIPANTS) {
+                  puuids[i++] = p.getText();
+                }
+              }
+            } else {
+              p.skipChildren();
+            }
+          }
+        } else if ("info".equals(section) && t == JsonToken.START_OBJECT) {
+          String field;
+          while ((field = p.nextFieldName()) != null) {
+            p.nextToken();
+            switch (field) {
+              case "frameInterval" -> frameInterval = p.getValueAsInt();
+              case "frames"        -> readFrames(p, series);
+              default              -> p.skipChildren();
+            }
+          }
+        } else {
+          p.skipChildren();
+        }
+      }
+    }
+
+    List<MatchTimeline> out = new ArrayList<>(MAX_PARTICIPANTS);
+    for (int i = 0; i < MAX_PARTICIPANTS; i++) {
+      if (puuids[i] != null) {
+        out.add(new MatchTimeline(matchId, puuids[i], i + 1, frameInterval,
+          Arrays.copyOf(series.gold[i], series.frames),
+          Arrays.copyOf(series.xp[i], series.frames),
+          Arrays.copyOf(series.cs[i], series.frames)));
+      }
+    }
+    return out;
+  }
+
+  private void readFrames(JsonParser p, Series series) throws IOException {
+    if (p.currentToken() != JsonToken.START_ARRAY) {
+      p.skipChildren();
+      return;
+    }
+    while (p.nextToken() == JsonToken.START_OBJECT) {
+      int frame = series.frames++;
+      series.ensureCapacity(series.frames);
+      String field;
+      while ((field = p.nextFieldName()) != null) {
+        JsonToken t = p.nextToken();
+        if ("participantFrames".equals(field) && t == JsonToken.START_OBJECT) {
+          String key;
+          while ((key = p.nextFieldName()) != null) {
+            p.nextToken();
+            readParticipantFrame(p, series, frame, Integer.parseInt(key) - 1);
+          }
+        } else {
+          p.skipChildren();
+        }
+      }
+    }
+  }
+
+  private static void readParticipantFrame(JsonParser p, Series series, int frame, int slot) throws IOException {
+    if (slot < 0 || slot >= MAX_PARTICIPANTS) {
+      p.skipChildren();
+      return;
+    }
+    int cs = 0;
+    String field;
+    while ((field = p.nextFieldName()) != null) {
+      p.nextToken();
+      switch (field) {
+        case "totalGold"           -> series.gold[slot][frame] = p.getValueAsInt();
+        case "xp"                  -> series.xp[slot][frame] = p.getValueAsInt();
+        case "minionsKilled",
+             "jungleMinionsKilled" -> cs += p.getValueAsInt();
+        default                    -> p.skipChildren();
+      }
+    }
+    series.cs[slot][frame] = cs;
+  }
+
+  /**
+   * Growable per-participant series; a frame index is shared by all participants.
+   */
+  private static final class Series {
+    int frames;
+    int[][] gold = new int[MAX_PARTICIPANTS][64];
+    int[][] xp = new int[MAX_PARTICIPANTS][64];
+    int[][] cs = new int[MAX_PARTICIPANTS][64];
+
+    void ensureCapacity(int n) {
+      if (n <= gold[0].length) {
+        return;
+      }
+      int size = Math.max(n, gold[0].length * 2);
+      for (int i = 0; i < MAX_PARTICIPANTS; i++) {
+        gold[i] = Arrays.copyOf(gold[i], size);
+        xp[i] = Arrays.copyOf(xp[i], size);
+        cs[i] = Arrays.copyOf(cs[i], size);
+      }
+    }
+  }
+}
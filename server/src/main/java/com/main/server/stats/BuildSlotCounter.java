@@ -0,0 +1,157 @@
+package com.main.server.stats;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Counts wins and games per (champion, item) over all seven slots of every stored build, in one pass
+ * over {@code matches} joined to {@code player_builds}.
+ *
+ * The JDBC thread only decodes the cursor into fixed-size chunks of primitive columns; champion names
+ * are interned to dense ints on the way. Each full chunk is handed to a fork/join worker, which adds
+ * its slots to that worker's own {@link CounterTable}, so workers never share or lock anything. The
+ * per-worker tables are merged once the cursor is exhausted. A fixed set of chunks is recycled between
+ * the reader and the workers, which bounds memory and slows the reader down when the workers fall
+ * behind.
+ *
+ * To aggregate along another dimension (position, patch, ...), select it, add a column to
+ * {@link Chunk}, and pack it into the counter key.
+ */
+final class BuildSlotCounter {
+
+  private static final int SLOTS = 7;
+  private static final int CHUNK_ROWS = 8192;
+
+  private static final String SQL = """
+      SELECT m.champion_name, m.win,
+             pb.item0, pb.item1, pb.item2, pb.item3, pb.item4, pb.item5, pb.item6
+        FROM matches m
+        JOIN player_builds pb
+          ON m.match_id = pb.match_id
+         AND m.puuid    = pb.puuid
+      """;
+
+  /**
+   * @param champions champion names, indexed by the high half of each key
+   * @param counts    (champion index, item id) to (wins, games)
+   * @param builds    builds read
+   */
+  record Result(List<String> champions, CounterTable counts, long builds) {}
+
+  private final int parallelism;
+  private final int fetchSize;
+
+  BuildSlotCounter(int parallelism, int fetchSize) {
+    this.parallelism = parallelism;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Streams every build through the workers. Runs on {@code jdbc}'s current transaction, if any, so the
+   * caller decides which snapshot is counted.
+   */
+  Result count(JdbcTemplate jdbc) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return count(jdbc, pool);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private Result count(JdbcTemplate jdbc, ForkJoinPool pool) {
+    Map<Thread, CounterTable> perWorker = new ConcurrentHashMap<>();
+    BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(parallelism * 2);
+    for (int i = 0; i < parallelism * 2; i++) {
+      free.add(new Chunk());
+    }
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    Map<String, Integer> championIndex = new HashMap<>();
+    List<String> champions = new ArrayList<>();
+    long[] builds = {0};
+    Chunk[] current = {take(free)};
+
+    jdbc.query(con -> {
+      PreparedStatement ps = con.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      ps.setFetchSize(fetchSize);
+      return ps;
+    }, rs -> {
+      Chunk c = current[0];
+      int row = c.rows;
+      String name = rs.getString(1);
+      Integer champion = championIndex.get(name);
+      if (champion == null) {
+        champion = champions.size();
+        championIndex.put(name, champion);
+        champions.add(name);
+      }
+      c.champion[row] = champion;
+      c.win[row] = rs.getBoolean(2);
+      for (int slot = 0; slot < SLOTS; slot++) {
+        c.items[row * SLOTS + slot] = rs.getInt(3 + slot);
+      }
+      c.rows = row + 1;
+      builds[0]++;
+      if (c.rows == CHUNK_ROWS) {
+        tasks.add(pool.submit(() -> accumulate(c, perWorker, free)));
+        current[0] = take(free);
+      }
+    });
+    Chunk last = current[0];
+    if (last.rows > 0) {
+      tasks.add(pool.submit(() -> accumulate(last, perWorker, free)));
+    }
+    // rethrows the first worker failure
+    tasks.forEach(ForkJoinTask::join);
+
+    CounterTable total = new CounterTable(1024);
+    perWorker.values().forEach(total::addAll);
+    return new Result(champions, total, builds[0]);
+  }
+
+  private static void accumulate(Chunk c, Map<Thread, CounterTable> perWorker, BlockingQueue<Chunk> free) {
+    try {
+      CounterTable counts = perWorker.computeIfAbsent(Thread.currentThread(), t -> new CounterTable(1024));
+      for (int row = 0; row < c.rows; row++) {
+        long won = c.win[row] ? 1 : 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+          int item = c.items[row * SLOTS + slot];
+          if (item != 0) {
+            counts.add(CounterTable.key(c.champion[row], item), won, 1);
+          }
+        }
+      }
+    } finally {
+      c.rows = 0;
+      free.add(c);
+    }
+  }
+
+  private static Chunk take(BlockingQueue<Chunk> free) {
+    try {
+      return free.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while counting build slots", e);
+    }
+  }
+
+  /** {@value #CHUNK_ROWS} decoded rows, column by column. */
+  private static final class Chunk {
+    final int[] champion = new int[CHUNK_ROWS];
+    final boolean[] win = new boolean[CHUNK_ROWS];
+    final int[] items = new int[CHUNK_ROWS * SLOTS];
+    int rows;
+  }
+}
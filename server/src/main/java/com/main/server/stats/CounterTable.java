@@ -0,0 +1,124 @@
+package com.main.server.stats;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed map from a packed {@code long} key to a pair of {@code long} counters (wins, games).
+ *
+ * Keys are built with {@link #key(int, int)} from two non-negative ints, e.g. (champion, item); a new
+ * dimension only needs to be packed into the same 64 bits. Not thread-safe: every aggregation worker
+ * fills its own table and the tables are combined with {@link #addAll} afterwards.
+ */
+final class CounterTable {
+  private static final long EMPTY = -1L;
+
+  private long[] keys;
+  private long[] wins;
+  private long[] games;
+  private int size;
+
+  CounterTable(int expectedKeys) {
+    int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2) - 1) << 1;
+    allocate(capacity);
+  }
+
+  static long key(int high, int low) {
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+
+  static int high(long key) {
+    return (int) (key >>> 32);
+  }
+
+  static int low(long key) {
+    return (int) key;
+  }
+
+  void add(long key, long wins, long games) {
+    if ((size + 1) * 2 > keys.length) {
+      grow();
+    }
+    int i = slot(key);
+    if (keys[i] == EMPTY) {
+      keys[i] = key;
+      size++;
+    }
+    this.wins[i] += wins;
+    this.games[i] += games;
+  }
+
+  void addAll(CounterTable other) {
+    for (int i = 0; i < other.keys.length; i++) {
+      if (other.keys[i] != EMPTY) {
+        add(other.keys[i], other.wins[i], other.games[i]);
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** Every key present, ascending. */
+  long[] sortedKeys() {
+    long[] out = new long[size];
+    int n = 0;
+    for (long k : keys) {
+      if (k != EMPTY) {
+        out[n++] = k;
+      }
+    }
+    Arrays.sort(out);
+    return out;
+  }
+
+  long wins(long key) {
+    int i = slot(key);
+    return keys[i] == EMPTY ? 0 : wins[i];
+  }
+
+  long games(long key) {
+    int i = slot(key);
+    return keys[i] == EMPTY ? 0 : games[i];
+  }
+
+  /** Index of {@code key}, or of the empty slot where it belongs. */
+  private int slot(long key) {
+    int mask = keys.length - 1;
+    int i = (int) mix(key) & mask;
+    while (keys[i] != EMPTY && keys[i] != key) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    long[] oldWins = wins;
+    long[] oldGames = games;
+    allocate(oldKeys.length * 2);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        add(oldKeys[i], oldWins[i], oldGames[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    Arrays.fill(keys, EMPTY);
+    wins = new long[capacity];
+    games = new long[capacity];
+  }
+
+  // murmur3 finalizer; packed keys differ mostly in their low bits of each half
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,179 @@
+package com.main.server.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code champion_item_counts} and {@code champion_item_winrate} current as matches are ingested.
+ *
+ * Every stored build starts out with {@code aggregated = false}. Each run claims up to
+ * {@code riot.winrate.merge-batch} such builds ({@code FOR UPDATE SKIP LOCKED}, so instances never
+ * count the same build twice), marks them, adds their seven item slots to the (champion, item) win and
+ * pick counters, and republishes the winrate of exactly the keys it touched. All of that is a single
+ * statement in one transaction, so the counters and the flags can never disagree. Builds that were
+ * already in the table when the flag was introduced are simply pending and get counted by the first
+ * runs.
+ *
+ * Builds overwritten by a {@code replace} re-parse are not re-counted; {@link WinrateCron} rebuilds the
+ * counters from scratch for that case.
+ */
+@Component
+public class WinrateAggregator {
+  private static final Logger logger = LoggerFactory.getLogger(WinrateAggregator.class);
+
+  /**
+   * Advisory lock key shared with {@link WinrateCron}: merges hold it shared, a rebuild exclusively.
+   */
+  static final long LOCK_KEY = 0x77696e72617465L; // "winrate"
+
+  /** Fewest picks before a (champion, item) pair is published to {@code champion_item_winrate}. */
+  static final int MIN_SAMPLE_SIZE = 5;
+
+  /** The seven item slots of a {@code player_builds} row {@code pb}, one row each. */
+  private static final String ITEM_SLOTS =
+      "CROSS JOIN LATERAL (VALUES (pb.item0), (pb.item1), (pb.item2), (pb.item3), (pb.item4), (pb.item5), (pb.item6)) AS s(item_id)";
+
+  private static final String MERGE_SQL = """
+      WITH pb AS (
+        UPDATE player_builds b
+           SET aggregated = TRUE
+          FROM (SELECT match_id, puuid
+                  FROM player_builds
+                 WHERE NOT aggregated
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED) p
+         WHERE b.match_id = p.match_id
+           AND b.puuid    = p.puuid
+        RETURNING b.*
+      ),
+      deltas AS (
+        SELECT m.champion_name, s.item_id,
+               SUM(m.win::INT) AS wins,
+               COUNT(*)        AS games
+          FROM pb
+          JOIN matches m
+            ON m.match_id = pb.match_id
+           AND m.puuid    = pb.puuid
+          %s
+         WHERE s.item_id <> 0
+         GROUP BY m.champion_name, s.item_id
+      ),
+      counted AS (
+        INSERT INTO champion_item_counts AS c (champion_name, item_id, wins, games)
+        SELECT champion_name, item_id, wins, games
+          FROM deltas
+         ORDER BY champion_name, item_id
+        ON CONFLICT (champion_name, item_id) DO UPDATE
+           SET wins  = c.wins  + EXCLUDED.wins,
+               games = c.games + EXCLUDED.games
+        RETURNING champion_name, item_id, wins, games
+      ),
+      published AS (
+        INSERT INTO champion_item_winrate (champion_name, item_id, win_rate, sample_size)
+        SELECT champion_name, item_id, wins::FLOAT8 / games, games
+          FROM counted
+         WHERE games >= %d
+        ON CONFLICT (champion_name, item_id) DO UPDATE
+           SET win_rate    = EXCLUDED.win_rate,
+               sample_size = EXCLUDED.sample_size
+      )
+      SELECT (SELECT COUNT(*) FROM pb) AS builds,
+             (SELECT COUNT(*) FROM counted) AS pairs
+      """.formatted(ITEM_SLOTS, MIN_SAMPLE_SIZE);
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final int batchSize;
+  private final int maxBatches;
+
+  private final AtomicLong buildsMerged = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private volatile long lastRunAt;
+  private volatile long lastRunMs;
+  private volatile String lastError;
+
+  public WinrateAggregator(
+      JdbcTemplate jdbc,
+      PlatformTransactionManager transactionManager,
+      @Value("${riot.winrate.merge-batch:5000}") int batchSize,
+      @Value("${riot.winrate.max-batches-per-run:200}") int maxBatches) {
+    this.jdbc = jdbc;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.maxBatches = maxBatches;
+  }
+
+  /**
+   * Merges pending builds until none are left (or {@code riot.winrate.max-batches-per-run} batches have
+   * run, so a large first catch-up does not hold a scheduler thread for too long). The scheduler pool
+   * has several threads ({@code spring.task.scheduling.pool.size}), so ingest polling keeps running
+   * while a merge is in progress.
+   */
+  @Scheduled(fixedDelayString = "${riot.winrate.merge-interval-ms:60000}")
+  public void mergePending() {
+    long started = System.nanoTime();
+    long merged = 0;
+    try {
+      for (int i = 0; i < maxBatches; i++) {
+        Integer builds = tx.execute(status -> mergeBatch());
+        if (builds == null) {
+          // a rebuild holds the lock; it will count everything itself
+          break;
+        }
+        if (builds > 0) {
+          merged += builds;
+          buildsMerged.addAndGet(builds);
+          batches.incrementAndGet();
+        }
+        if (builds < batchSize) {
+          break;
+        }
+      }
+      lastError = null;
+    } catch (RuntimeException e) {
+      lastError = e.getMessage();
+      logger.warn("Winrate merge failed after {} builds: {}", merged, e.getMessage());
+    }
+    lastRunAt = System.currentTimeMillis();
+    lastRunMs = (System.nanoTime() - started) / 1_000_000;
+    if (merged > 0) {
+      logger.info("Merged {} builds into champion item winrates in {}ms", merged, lastRunMs);
+    }
+  }
+
+  /**
+   * @return builds merged, or {@code null} if a rebuild is running
+   */
+  private Integer mergeBatch() {
+    Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock_shared(?)", Boolean.class, LOCK_KEY);
+    if (!Boolean.TRUE.equals(locked)) {
+      return null;
+    }
+    return jdbc.queryForObject(MERGE_SQL, (rs, i) -> {
+      logger.debug("Merged {} builds into {} (champion, item) counters", rs.getInt("builds"), rs.getInt("pairs"));
+      return rs.getInt("builds");
+    }, batchSize);
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("buildsMerged", buildsMerged.get());
+    m.put("batches", batches.get());
+    m.put("lastRunAt", lastRunAt);
+    m.put("lastRunMs", lastRunMs);
+    if (lastError != null) {
+      m.put("lastError", lastError);
+    }
+    return m;
+  }
+}
@@ -1,68 +1,211 @@
 package com.main.server.stats;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Scheduled component that rebuilds the champion_item_winrate table each night.
+ * Rebuilds the champion item counters and the champion_item_winrate table from every stored build.
+ *
+ * {@link WinrateAggregator} keeps both current as matches arrive, so this is only a reconciliation
+ * (e.g. after a {@code replace} re-parse) and is not scheduled unless {@code riot.winrate.rebuild-cron}
+ * is set.
+ *
+ * The counting happens in the JVM ({@link BuildSlotCounter}): one cursor pass over the builds, fanned out
+ * to {@code riot.winrate.rebuild-parallelism} workers, and one batch insert of the resulting counters.
+ *
+ * The new winrates replace the old ones inside the same transaction: changed and new pairs are
+ * upserted, pairs that no longer qualify are deleted, and the table is analyzed. Readers keep seeing the
+ * complete old winrates until the commit and the complete new ones after it. The live table itself is
+ * never dropped or recreated, so its keys, indexes, grants and row-level security policies stay as they
+ * are, and rows whose winrate did not change are not rewritten.
  */
 @Component
 public class WinrateCron {
+  private static final Logger logger = LoggerFactory.getLogger(WinrateCron.class);
+
+  private static final String INSERT_COUNT_SQL =
+      "INSERT INTO champion_item_counts (champion_name, item_id, wins, games) VALUES (?, ?, ?, ?)";
+
+  private static final String PUBLISH_SQL = """
+      INSERT INTO champion_item_winrate AS w (champion_name, item_id, win_rate, sample_size)
+      SELECT champion_name, item_id, wins::FLOAT8 / games, games
+        FROM champion_item_counts
+       WHERE games >= ?
+      ON CONFLICT (champion_name, item_id) DO UPDATE
+         SET win_rate    = EXCLUDED.win_rate,
+             sample_size = EXCLUDED.sample_size
+       WHERE (w.win_rate, w.sample_size) IS DISTINCT FROM (EXCLUDED.win_rate, EXCLUDED.sample_size)
+      """;
+
+  private static final String DELETE_STALE_SQL = """
+      DELETE FROM champion_item_winrate w
+       WHERE NOT EXISTS (
+         SELECT 1 FROM champion_item_counts c
+          WHERE c.champion_name = w.champion_name
+            AND c.item_id       = w.item_id
+            AND c.games        >= ?
+       )
+      """;
 
   private final JdbcTemplate jdbc;
+  private final BuildSlotCounter counter;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile long lastRunAt;
+  private volatile long lastRunMs;
+  private volatile long lastBuilds;
+  private volatile int lastCountRows;
+  private volatile int lastWinrateRows;
+  private volatile int lastWinrateDeletes;
+  private volatile String lastError;
 
-  public WinrateCron(JdbcTemplate jdbc) {
+  public WinrateCron(
+      JdbcTemplate jdbc,
+      @Value("${riot.winrate.rebuild-parallelism:0}") int parallelism,
+      @Value("${riot.winrate.rebuild-fetch-size:10000}") int fetchSize) {
     this.jdbc = jdbc;
+    this.counter = new BuildSlotCounter(
+        parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), fetchSize);
+  }
+
+  /**
+   * Starts a rebuild on its own thread.
+   *
+   * @return {@code false} if a rebuild is already running
+   */
+  public boolean startRebuild() {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+    Thread t = new Thread(() -> {
+      try {
+        rebuild();
+      } finally {
+        running.set(false);
+      }
+    }, "winrate-rebuild");
+    t.setDaemon(true);
+    t.start();
+    return true;
   }
 
-  /** 
-   * Runs every day at 2 AM server time.
-   * 1) Truncates the existing winrate table.
-   * 2) Executes an insert to repopulate the table with fresh data.
+  /**
+   * Scheduled entry point. The recount runs on its own thread so it never holds one of the shared
+   * scheduler threads that ingest polling also needs.
    */
-  @Scheduled(cron = "0 0 2 * * *")
+  @Scheduled(cron = "${riot.winrate.rebuild-cron:-}")
   public void rebuildWinrateTable() {
-    jdbc.execute("TRUNCATE TABLE champion_item_winrate");
-    String cteInsert = """
-      WITH all_picks AS (
-        SELECT m.champion_name,
-               (m.win::INT)     AS win,
-               pb.item0         AS item_id
-          FROM matches m
-          JOIN player_builds pb
-            ON m.match_id = pb.match_id
-           AND m.puuid     = pb.puuid
-        UNION ALL
-        SELECT m.champion_name, (m.win::INT), pb.item1
-          FROM matches m
-          JOIN player_builds pb
-            ON m.match_id = pb.match_id
-           AND m.puuid     = pb.puuid
-        UNION ALL
-        -- … repeat for item2 through item6 …
-        SELECT m.champion_name, (m.win::INT), pb.item6
-          FROM matches m
-          JOIN player_builds pb
-            ON m.match_id = pb.match_id
-           AND m.puuid     = pb.puuid
-      ),
-      rates AS (
-        SELECT champion_name,
-               item_id,
-               AVG(win)    AS win_rate,
-               COUNT(*)    AS sample_size
-          FROM all_picks
-         WHERE item_id <> 0
-         GROUP BY champion_name, item_id
-         HAVING COUNT(*) >= 5
-      )
-      INSERT INTO champion_item_winrate
-        (champion_name, item_id, win_rate, sample_size)
-      SELECT champion_name, item_id, win_rate, sample_size
-        FROM rates;
-      """;
+    if (!startRebuild()) {
+      logger.info("Winrate rebuild already running; skipping");
+    }
+  }
+
+  /**
+   * Recounts everything in one transaction while holding the aggregator lock exclusively, so no merge
+   * runs concurrently, then replaces the published winrates.
+   *
+   * The lock is taken at session level on the connection before the transaction starts. Taking it
+   * inside a REPEATABLE READ transaction would fix the snapshot while still waiting for the lock, so
+   * the rows of any merge committed during the wait would fail the rebuild with a serialization error.
+   */
+  private void rebuild() {
+    long started = System.nanoTime();
+    long[] rows = new long[4];
+    try {
+      jdbc.execute((ConnectionCallback<Void>) con -> {
+        JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+        session.queryForObject("SELECT pg_advisory_lock(?)", Object.class, WinrateAggregator.LOCK_KEY);
+        try {
+          // one snapshot for marking builds and counting them, so a build committed in between is
+          // neither counted here nor left marked without being counted
+          TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(session.getDataSource()));
+          tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+          tx.executeWithoutResult(status -> {
+            session.update("UPDATE player_builds SET aggregated = TRUE WHERE NOT aggregated");
+            session.update("DELETE FROM champion_item_counts");
+            BuildSlotCounter.Result counted = counter.count(session);
+            rows[0] = counted.builds();
+            rows[1] = writeCounts(session, counted);
+
+            rows[2] = session.update(PUBLISH_SQL, WinrateAggregator.MIN_SAMPLE_SIZE);
+            rows[3] = session.update(DELETE_STALE_SQL, WinrateAggregator.MIN_SAMPLE_SIZE);
+            session.execute("ANALYZE champion_item_winrate");
+          });
+        } finally {
+          session.queryForObject("SELECT pg_advisory_unlock(?)", Object.class, WinrateAggregator.LOCK_KEY);
+        }
+        return null;
+      });
+      lastBuilds = rows[0];
+      lastCountRows = (int) rows[1];
+      lastWinrateRows = (int) rows[2];
+      lastWinrateDeletes = (int) rows[3];
+      lastError = null;
+      lastRunMs = (System.nanoTime() - started) / 1_000_000;
+      logger.info("Rebuilt champion item winrates in {}ms: {} builds, {} counters, {} winrate rows written, {} removed",
+          lastRunMs, rows[0], rows[1], rows[2], rows[3]);
+    } catch (RuntimeException e) {
+      lastError = e.getMessage();
+      lastRunMs = (System.nanoTime() - started) / 1_000_000;
+      logger.error("Winrate rebuild failed after {}ms; the previous winrates are still served", lastRunMs, e);
+    } finally {
+      lastRunAt = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Inserts the counters in key order with one JDBC batch.
+   *
+   * @return rows written
+   */
+  private static int writeCounts(JdbcTemplate jdbc, BuildSlotCounter.Result counted) {
+    long[] keys = counted.counts().sortedKeys();
+    jdbc.batchUpdate(INSERT_COUNT_SQL, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        long key = keys[i];
+        ps.setString(1, counted.champions().get(CounterTable.high(key)));
+        ps.setInt(2, CounterTable.low(key));
+        ps.setLong(3, counted.counts().wins(key));
+        ps.setLong(4, counted.counts().games(key));
+      }
+
+      @Override
+      public int getBatchSize() {
+        return keys.length;
+      }
+    });
+    return keys.length;
+  }
 
-    jdbc.execute(cteInsert);
+  public Map<String, Object> stats() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("running", running.get());
+    m.put("lastRunAt", lastRunAt);
+    m.put("lastRunMs", lastRunMs);
+    m.put("lastBuilds", lastBuilds);
+    m.put("lastCountRows", lastCountRows);
+    m.put("lastWinrateRows", lastWinrateRows);
+    m.put("lastWinrateDeletes", lastWinrateDeletes);
+    if (lastError != null) {
+      m.put("lastError", lastError);
+    }
+    return m;
   }
 }
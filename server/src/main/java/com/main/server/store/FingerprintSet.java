@@ -0,0 +1,121 @@
+package com.main.server.store;
+
+import java.util.Arrays;
+
+/**
+ * Bounded in-memory set of string keys, stored as 64-bit fingerprints in open-addressed
+ * {@code long[]} tables (8 bytes per slot, no per-entry objects).
+ *
+ * Two generations are kept: keys are added to the current one, and when it reaches its share of
+ * {@code capacity} the previous generation is dropped and the current one takes its place. Recently
+ * added keys therefore survive at least one full generation, and memory stays fixed at 32 to 64 bytes
+ * per unit of {@code capacity}.
+ *
+ * A lookup can only be wrong by reporting a key that was never added when two keys share a 64-bit
+ * fingerprint; with a few million keys the odds of that are around 10<sup>-7</sup>.
+ */
+public class FingerprintSet {
+  private final int generationSize;
+  private long[] current;
+  private long[] previous;
+  private int currentCount;
+  private int previousCount;
+
+  /**
+   * @param capacity number of recent keys guaranteed to be retained
+   */
+  public FingerprintSet(int capacity) {
+    this.generationSize = Math.max(16, capacity);
+    // load factor 0.5 keeps probe sequences short
+    int slots = Integer.highestOneBit(generationSize * 2 - 1) << 1;
+    this.current = new long[slots];
+    this.previous = new long[slots];
+  }
+
+  /**
+   * Fingerprint of a single key, e.g. a match ID.
+   */
+  public static long fingerprint(String key) {
+    return finish(mixIn(0xcbf29ce484222325L, key));
+  }
+
+  /**
+   * Fingerprint of a composite key, e.g. a match ID and a PUUID.
+   */
+  public static long fingerprint(String a, String b) {
+    long h = 0xcbf29ce484222325L;
+    h = mixIn(h, a);
+    h = (h ^ 0x1F) * 0x100000001b3L;
+    h = mixIn(h, b);
+    return finish(h);
+  }
+
+  private static long finish(long h) {
+    // murmur3 finalizer spreads FNV's weak low bits over the whole word
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h == 0 ? 1 : h;
+  }
+
+  private static long mixIn(long h, String s) {
+    for (int i = 0; i < s.length(); i++) {
+      h = (h ^ s.charAt(i)) * 0x100000001b3L;
+    }
+    return h;
+  }
+
+  public synchronized boolean contains(long fingerprint) {
+    return find(current, fingerprint) || find(previous, fingerprint);
+  }
+
+  /**
+   * Adds a fingerprint to the current generation (a key only held by the previous one is refreshed).
+   *
+   * @return {@code false} if the fingerprint was already held
+   */
+  public synchronized boolean add(long fingerprint) {
+    if (find(current, fingerprint)) {
+      return false;
+    }
+    boolean known = find(previous, fingerprint);
+    if (currentCount >= generationSize) {
+      long[] recycled = previous;
+      Arrays.fill(recycled, 0L);
+      previous = current;
+      current = recycled;
+      previousCount = currentCount;
+      currentCount = 0;
+    }
+    int mask = current.length - 1;
+    int i = (int) fingerprint & mask;
+    while (current[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    current[i] = fingerprint;
+    currentCount++;
+    return !known;
+  }
+
+  /**
+   * Number of fingerprints held; a key re-added after a rotation is counted in both generations.
+   */
+  public synchronized int size() {
+    return currentCount + previousCount;
+  }
+
+  private static boolean find(long[] table, long fingerprint) {
+    int mask = table.length - 1;
+    int i = (int) fingerprint & mask;
+    long slot;
+    while ((slot = table[i]) != 0) {
+      if (slot == fingerprint) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+}
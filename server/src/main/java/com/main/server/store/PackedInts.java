@@ -0,0 +1,50 @@
+package com.main.server.store;
+
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding for {@code int[]} series, used for {@code bytea} columns.
+ *
+ * Values are stored as zigzag varints of the difference to the previous value. Running totals such as
+ * gold or CS per minute change by small amounts, so most entries take one or two bytes instead of four.
+ */
+public final class PackedInts {
+  private PackedInts() {}
+
+  public static byte[] pack(int[] values) {
+    byte[] out = new byte[values.length * 5];
+    int pos = 0;
+    int prev = 0;
+    for (int v : values) {
+      int delta = v - prev;
+      prev = v;
+      int zz = (delta << 1) ^ (delta >> 31);
+      while ((zz & ~0x7F) != 0) {
+        out[pos++] = (byte) ((zz & 0x7F) | 0x80);
+        zz >>>= 7;
+      }
+      out[pos++] = (byte) zz;
+    }
+    return Arrays.copyOf(out, pos);
+  }
+
+  public static int[] unpack(byte[] packed) {
+    int[] out = new int[packed.length];
+    int n = 0;
+    int prev = 0;
+    int pos = 0;
+    while (pos < packed.length) {
+      int zz = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = packed[pos++];
+        zz |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      prev += (zz >>> 1) ^ -(zz & 1);
+      out[n++] = prev;
+    }
+    return Arrays.copyOf(out, n);
+  }
+}
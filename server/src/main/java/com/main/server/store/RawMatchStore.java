@@ -0,0 +1,356 @@
+package com.main.server.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only on-disk store of raw Match-V5 payloads, keyed by matchId.
+ *
+ * Payloads are deflate-compressed and appended to segment files ({@code segment-000001.dat}, ...)
+ * that roll over at {@code riot.match-store.segment-bytes}. Each record is laid out as
+ * {@code [u16 keyLen][key][i32 rawLen][i32 compressedLen][compressed bytes]}. An in-memory index maps
+ * every matchId to its segment and record offset and is rebuilt by scanning the segments on startup;
+ * a partially written record at the tail (e.g. after a crash) is truncated away. Records in the
+ * segment being appended to are read with positional reads on its open channel; full segments no
+ * longer change, so they are read through read-only memory-mapped views that are mapped once.
+ * Payloads are compressed before the append lock is taken, so writers only serialize on the write.
+ *
+ * Because the raw JSON is kept, new columns or parser fixes can be backfilled with {@link #forEach}
+ * at disk speed instead of re-downloading from Riot.
+ */
+@Component
+public class RawMatchStore {
+  private static final Logger logger = LoggerFactory.getLogger(RawMatchStore.class);
+  private static final int OFFSET_BITS = 40;
+  private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+  private final boolean enabled;
+  private final Path dir;
+  private final long segmentBytes;
+
+  /** matchId -> (segment << OFFSET_BITS) | record offset */
+  private final Map<String, Long> index = new ConcurrentHashMap<>();
+  private final Map<Integer, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+  /** Segment being appended to; replaced as a whole on roll so readers see a matching pair. */
+  private volatile Active active;
+
+  private record Active(int segment, FileChannel channel) {}
+
+  public RawMatchStore(
+      @Value("${riot.match-store.enabled:true}") boolean enabled,
+      @Value("${riot.match-store.dir:./data/matches}") String dir,
+      @Value("${riot.match-store.segment-bytes:268435456}") long segmentBytes) {
+    this.enabled = enabled;
+    this.dir = Path.of(dir);
+    this.segmentBytes = segmentBytes;
+  }
+
+  @PostConstruct
+  public void open() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    Files.createDirectories(dir);
+    List<Integer> segments = listSegments();
+    for (int segment : segments) {
+      scan(segment);
+    }
+    active = openSegment(segments.isEmpty() ? 1 : segments.get(segments.size() - 1));
+    logger.info("Raw match store opened at {}: {} matches in {} segment(s)", dir, index.size(), Math.max(1, segments.size()));
+  }
+
+  @PreDestroy
+  public synchronized void close() throws IOException {
+    if (active != null) {
+      active.channel().force(true);
+      active.channel().close();
+      active = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean contains(String matchId) {
+    return index.containsKey(matchId);
+  }
+
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns the stored payload for {@code matchId}, or {@code null} if it has not been stored.
+   */
+  public byte[] get(String matchId) {
+    Long location = index.get(matchId);
+    if (location == null) {
+      return null;
+    }
+    int segment = (int) (location >>> OFFSET_BITS);
+    long offset = location & OFFSET_MASK;
+    int keyLen = matchId.getBytes(StandardCharsets.UTF_8).length;
+    Active current = active;
+    if (current != null && current.segment() == segment) {
+      try {
+        return readAt(current.channel(), offset, keyLen);
+      } catch (ClosedChannelException e) {
+        // rolled over (or closed) meanwhile; the segment is complete now and can be mapped
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read match " + matchId + " from raw store", e);
+      }
+    }
+    return read(view(segment, offset), (int) offset, keyLen);
+  }
+
+  /**
+   * Appends {@code json} under {@code matchId} unless the match is already stored.
+   */
+  public void put(String matchId, byte[] json) {
+    if (!enabled || index.containsKey(matchId)) {
+      return;
+    }
+    byte[] key = matchId.getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compress(json);
+    try {
+      synchronized (this) {
+        if (active == null || index.containsKey(matchId)) {
+          return;
+        }
+        ByteBuffer record = ByteBuffer.allocate(2 + key.length + 8 + compressed.length);
+        record.putShort((short) key.length).put(key).putInt(json.length).putInt(compressed.length).put(compressed);
+        record.flip();
+
+        FileChannel ch = active.channel();
+        if (ch.size() > 0 && ch.size() + record.remaining() > segmentBytes) {
+          roll();
+          ch = active.channel();
+        }
+        long offset = ch.size();
+        while (record.hasRemaining()) {
+          ch.write(record, offset + record.position());
+        }
+        index.put(matchId, ((long) active.segment() << OFFSET_BITS) | offset);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to append match " + matchId + " to raw store", e);
+    }
+  }
+
+  /**
+   * Visits every stored match in segment order, reading each segment sequentially.
+   * Intended for backfills and re-parses.
+   */
+  public void forEach(BiConsumer<String, byte[]> visitor) {
+    if (!enabled) {
+      return;
+    }
+    List<Integer> segments;
+    try {
+      segments = listSegments();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to list raw match segments", e);
+    }
+    for (int segment : segments) {
+      MappedByteBuffer buf;
+      try (FileChannel ch = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+        buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to map raw match segment " + segment, e);
+      }
+      int offset = 0;
+      while (offset + 2 <= buf.capacity()) {
+        long end = recordEnd(buf, offset);
+        if (end > buf.capacity()) {
+          break;
+        }
+        int keyLen = Short.toUnsignedInt(buf.getShort(offset));
+        byte[] key = new byte[keyLen];
+        buf.get(offset + 2, key);
+        visitor.accept(new String(key, StandardCharsets.UTF_8), read(buf, offset, keyLen));
+        offset = (int) end;
+      }
+    }
+  }
+
+  private void roll() throws IOException {
+    Active full = active;
+    full.channel().force(true);
+    active = openSegment(full.segment() + 1);
+    full.channel().close();
+  }
+
+  private Active openSegment(int segment) throws IOException {
+    return new Active(segment, FileChannel.open(segmentPath(segment),
+      StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+  }
+
+  /**
+   * Returns a mapped view of {@code segment} that covers the record at {@code offset}. A segment
+   * mapped while it was still being appended to is remapped once, after it is full.
+   */
+  private MappedByteBuffer view(int segment, long offset) {
+    MappedByteBuffer buf = mapped.get(segment);
+    if (buf != null && offset + 2 <= buf.capacity() && recordEnd(buf, (int) offset) <= buf.capacity()) {
+      return buf;
+    }
+    synchronized (mapped) {
+      try (FileChannel ch = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+        buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        mapped.put(segment, buf);
+        return buf;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to map raw match segment " + segment, e);
+      }
+    }
+  }
+
+  private static long recordEnd(ByteBuffer buf, int offset) {
+    int keyLen = Short.toUnsignedInt(buf.getShort(offset));
+    int header = offset + 2 + keyLen;
+    if (header + 8 > buf.capacity()) {
+      return Long.MAX_VALUE;
+    }
+    return (long) header + 8 + buf.getInt(header + 4);
+  }
+
+  private static byte[] read(ByteBuffer buf, int offset, int keyLen) {
+    int pos = offset + 2 + keyLen;
+    int rawLen = buf.getInt(pos);
+    int compressedLen = buf.getInt(pos + 4);
+    byte[] compressed = new byte[compressedLen];
+    buf.get(pos + 8, compressed);
+    return inflate(compressed, rawLen);
+  }
+
+  /**
+   * Reads the record at {@code offset} with positional reads, which leave the channel's position to
+   * the writer.
+   */
+  private static byte[] readAt(FileChannel ch, long offset, int keyLen) throws IOException {
+    ByteBuffer lengths = ByteBuffer.allocate(8);
+    readFully(ch, lengths, offset + 2 + keyLen);
+    int rawLen = lengths.getInt(0);
+    ByteBuffer compressed = ByteBuffer.allocate(lengths.getInt(4));
+    readFully(ch, compressed, offset + 2 + keyLen + 8);
+    return inflate(compressed.array(), rawLen);
+  }
+
+  private static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      if (ch.read(buf, position + buf.position()) < 0) {
+        throw new IllegalStateException("Truncated record in raw match store");
+      }
+    }
+  }
+
+  private static byte[] inflate(byte[] compressed, int rawLen) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      byte[] out = new byte[rawLen];
+      int n = 0;
+      while (n < rawLen && !inflater.finished()) {
+        n += inflater.inflate(out, n, rawLen - n);
+      }
+      return out;
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupt record in raw match store", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static byte[] compress(byte[] json) {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    try {
+      deflater.setInput(json);
+      deflater.finish();
+      byte[] buf = new byte[Math.max(64, json.length / 4)];
+      int n = 0;
+      while (!deflater.finished()) {
+        if (n == buf.length) {
+          buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        n += deflater.deflate(buf, n, buf.length - n);
+      }
+      return Arrays.copyOf(buf, n);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Indexes every complete record of {@code segment} and truncates a torn record at its tail.
+   */
+  private void scan(int segment) throws IOException {
+    Path path = segmentPath(segment);
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long size = ch.size();
+      if (size == 0) {
+        return;
+      }
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      int offset = 0;
+      while (offset + 2 <= size) {
+        long end = recordEnd(buf, offset);
+        if (end > size) {
+          break;
+        }
+        int keyLen = Short.toUnsignedInt(buf.getShort(offset));
+        byte[] key = new byte[keyLen];
+        buf.get(offset + 2, key);
+        index.put(new String(key, StandardCharsets.UTF_8), ((long) segment << OFFSET_BITS) | offset);
+        offset = (int) end;
+      }
+      if (offset < size) {
+        logger.warn("Truncating {} torn bytes at the end of {}", size - offset, path);
+        ch.truncate(offset);
+      }
+    }
+  }
+
+  private List<Integer> listSegments() throws IOException {
+    List<Integer> out = new ArrayList<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      files.map(p -> p.getFileName().toString())
+        .filter(n -> n.startsWith("segment-") && n.endsWith(".dat"))
+        .map(n -> Integer.parseInt(n.substring("segment-".length(), n.length() - ".dat".length())))
+        .sorted()
+        .forEach(out::add);
+    }
+    return out;
+  }
+
+  private Path segmentPath(int segment) {
+    return dir.resolve(String.format("segment-%06d.dat", segment));
+  }
+}
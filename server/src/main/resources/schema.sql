@@ -0,0 +1,82 @@
+-- Tables and indexes added on top of the original Supabase schema
+-- (players, matches, player_builds, rank_info, champion_item_winrate).
+-- Every statement must be idempotent: this script runs on each startup.
+
+CREATE TABLE IF NOT EXISTS player_sync_state (
+  puuid              TEXT PRIMARY KEY,
+  newest_game_start  BIGINT      NOT NULL,
+  oldest_game_start  BIGINT      NOT NULL,
+  history_exhausted  BOOLEAN     NOT NULL DEFAULT FALSE,
+  updated_at         TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Durable ingestion jobs, claimed by workers with FOR UPDATE SKIP LOCKED.
+-- At most one queued job per (puuid, kind); later requests are merged into it.
+CREATE TABLE IF NOT EXISTS ingest_jobs (
+  id           BIGSERIAL   PRIMARY KEY,
+  kind         TEXT        NOT NULL,
+  puuid        TEXT        NOT NULL,
+  region       TEXT        NOT NULL,
+  match_ids    TEXT[]      NOT NULL DEFAULT '{}',
+  status       TEXT        NOT NULL DEFAULT 'queued',
+  attempts     INT         NOT NULL DEFAULT 0,
+  run_after    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  locked_by    TEXT,
+  locked_at    TIMESTAMPTZ,
+  last_error   TEXT,
+  created_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ingest_jobs_queued_uq
+  ON ingest_jobs (puuid, kind) WHERE status = 'queued';
+
+CREATE INDEX IF NOT EXISTS ingest_jobs_ready_idx
+  ON ingest_jobs (run_after) WHERE status = 'queued';
+
+-- Per-minute gold/xp/cs series from Match-V5 timelines, one row per participant.
+-- The series are zigzag/delta varint encoded int arrays (see PackedInts).
+CREATE TABLE IF NOT EXISTS match_timelines (
+  match_id           TEXT     NOT NULL,
+  puuid              TEXT     NOT NULL,
+  participant_id     SMALLINT NOT NULL,
+  frame_interval_ms  INT      NOT NULL,
+  gold               BYTEA    NOT NULL,
+  xp                 BYTEA    NOT NULL,
+  cs                 BYTEA    NOT NULL,
+  PRIMARY KEY (match_id, puuid)
+);
+
+-- Freshness of the Riot data cached on players, for the account/profile lookup cache.
+ALTER TABLE players ADD COLUMN IF NOT EXISTS account_checked_at TIMESTAMPTZ;
+ALTER TABLE players ADD COLUMN IF NOT EXISTS profile_checked_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS players_riot_id_idx
+  ON players (lower(game_name), lower(tag_line));
+
+-- Account/profile lookups that Riot answered with 404.
+CREATE TABLE IF NOT EXISTS player_lookup_misses (
+  lookup_key  TEXT        PRIMARY KEY,
+  checked_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Keyset pagination of a player's match history (scanned backwards for newest first).
+CREATE INDEX IF NOT EXISTS matches_puuid_start_idx
+  ON matches (puuid, game_start_timestamp, match_id);
+
+-- Running (champion, item) win/pick counters, merged incrementally from builds with aggregated = false.
+CREATE TABLE IF NOT EXISTS champion_item_counts (
+  champion_name  TEXT   NOT NULL,
+  item_id        INT    NOT NULL,
+  wins           BIGINT NOT NULL,
+  games          BIGINT NOT NULL,
+  PRIMARY KEY (champion_name, item_id)
+);
+
+ALTER TABLE player_builds ADD COLUMN IF NOT EXISTS aggregated BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS player_builds_pending_idx
+  ON player_builds (match_id, puuid) WHERE NOT aggregated;
+
+-- Target of the incremental winrate upserts.
+CREATE UNIQUE INDEX IF NOT EXISTS champion_item_winrate_key_uq
+  ON champion_item_winrate (champion_name, item_id);
@@ -0,0 +1,167 @@
+package com.main.server.bench;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.main.server.mock.MockRiotServer;
+import com.main.server.repository.IngestJobRepository;
+
+/**
+ * End-to-end ingestion benchmark against {@link MockRiotServer}.
+ *
+ * Fires {@code bench.searches} concurrent {@code /user/search} requests for distinct mock players,
+ * waits until the ingest job queue has drained, and reports search latency (p50/p99) and stored
+ * matches per second. Nothing leaves the machine, but the server still needs its Postgres database
+ * ({@code db.url} etc. as for a normal run); use a scratch database, as the run writes mock players
+ * and matches into it.
+ *
+ * Not picked up by {@code mvn test}; run it explicitly:
+ *
+ * <pre>
+ * mvn test -Dtest=IngestionBenchmark -Dbench.searches=50 -Dbench.latency-ms=40 -Dbench.429-rate=0.01
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IngestionBenchmark {
+  private static final String API_KEY = "bench-key";
+  private static final int SEARCHES = Integer.getInteger("bench.searches", 50);
+  private static final int IDS_PER_PLAYER = Integer.getInteger("bench.ids-per-player", 20);
+  private static final long APP_LIMIT = Long.getLong("bench.app-limit", 500L);
+  private static final long TIMEOUT_MS = Long.getLong("bench.timeout-ms", 600_000L);
+
+  private static final MockRiotServer riot = startMock();
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private IngestJobRepository ingestJobRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private static MockRiotServer startMock() {
+    try {
+      return new MockRiotServer()
+        .latency(Long.getLong("bench.latency-ms", 30L), Long.getLong("bench.latency-jitter-ms", 20L))
+        .tooManyRequestsRate(Double.parseDouble(System.getProperty("bench.429-rate", "0")))
+        .appRateLimit(APP_LIMIT, 1)
+        .idsPerPlayer(IDS_PER_PLAYER)
+        .start();
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not start mock Riot server", e);
+    }
+  }
+
+  @DynamicPropertySource
+  static void riotProperties(DynamicPropertyRegistry registry) throws Exception {
+    Path store = Files.createTempDirectory("bench-matches");
+    registry.add("riot.api.base-url", () -> riot.baseUrl() + "/{region}");
+    registry.add("riot.ddragon.base-url", () -> riot.baseUrl() + "/ddragon");
+    registry.add("riot.key", () -> "mock-riot-key");
+    registry.add("backend.key", () -> API_KEY);
+    registry.add("frontend.url", () -> "http://localhost");
+    // start the client-side limiter at the mock's limit instead of a development key's
+    registry.add("riot.rate-limit.app-defaults", () -> APP_LIMIT + ":1");
+    registry.add("riot.match-store.dir", store::toString);
+    registry.add("riot.crawler.enabled", () -> "false");
+    registry.add("riot.jobs.poll-interval-ms", () -> "100");
+    registry.add("riot.jobs.backoff-ms", () -> "500");
+  }
+
+  @AfterAll
+  static void stopMock() {
+    riot.close();
+  }
+
+  @Test
+  void searchAndCacheThroughput() throws Exception {
+    String run = Long.toString(System.currentTimeMillis(), 36);
+    HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    long matchesBefore = storedMockMatches();
+
+    long[] latencies = new long[SEARCHES];
+    AtomicInteger failed = new AtomicInteger();
+    List<CompletableFuture<Void>> searches = new ArrayList<>(SEARCHES);
+    long start = System.nanoTime();
+    for (int i = 0; i < SEARCHES; i++) {
+      int n = i;
+      HttpRequest request = HttpRequest.newBuilder()
+        .uri(URI.create("http://localhost:" + port + "/user/search/bench" + run + "x" + i + "/NA1/na1/americas"))
+        .header("X-API-KEY", API_KEY)
+        .timeout(Duration.ofSeconds(60))
+        .GET()
+        .build();
+      long sent = System.nanoTime();
+      searches.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .thenAccept(res -> {
+          latencies[n] = System.nanoTime() - sent;
+          if (res.statusCode() != 200) {
+            failed.incrementAndGet();
+          }
+        }));
+    }
+    CompletableFuture.allOf(searches.toArray(CompletableFuture[]::new)).join();
+    long searchesDone = System.nanoTime();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (hasPendingJobs() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(200);
+    }
+    long drained = System.nanoTime();
+    long matches = storedMockMatches() - matchesBefore;
+
+    Arrays.sort(latencies);
+    double seconds = (drained - start) / 1e9;
+    System.out.printf("""
+
+      Ingestion benchmark
+        searches          %d (%d failed) in %.2fs
+        search latency    p50 %.1fms  p99 %.1fms  max %.1fms
+        matches stored    %d in %.2fs  ->  %.1f matches/s
+        mock Riot         %d match, %d timeline, %d match-ids requests, %d rate limited
+      %n""",
+      SEARCHES, failed.get(), (searchesDone - start) / 1e9,
+      percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies[SEARCHES - 1] / 1e6,
+      matches, seconds, matches / seconds,
+      riot.requests("match"), riot.requests("timeline"), riot.requests("match-ids"), riot.rateLimited());
+
+    assertTrue(failed.get() < SEARCHES, "every search failed");
+  }
+
+  private boolean hasPendingJobs() {
+    Map<String, Long> counts = ingestJobRepository.countByStatus();
+    return counts.getOrDefault("queued", 0L) + counts.getOrDefault("running", 0L) > 0;
+  }
+
+  private long storedMockMatches() {
+    Long n = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT match_id) FROM matches WHERE puuid LIKE 'mock-%'", Long.class);
+    return n == null ? 0 : n;
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+  }
+}
@@ -0,0 +1,156 @@
+package com.main.server.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.jupiter.api.Test;
+
+import com.main.server.export.ArrowStreamWriter.Column;
+import com.main.server.export.ArrowStreamWriter.ColumnType;
+
+/**
+ * Reads the writer's output back with Arrow's own stream reader.
+ */
+class ArrowStreamWriterTest {
+
+  private static final List<Column> COLUMNS = List.of(
+      new Column("match_id", ColumnType.UTF8),
+      new Column("champion", ColumnType.DICTIONARY_UTF8),
+      new Column("kills", ColumnType.INT32),
+      new Column("duration", ColumnType.INT64),
+      new Column("kda", ColumnType.FLOAT64),
+      new Column("win", ColumnType.BOOL));
+
+  // batches of 4: new champions in the first two (the second one arrives as a delta), none in the third
+  private static final String[] CHAMPIONS =
+      {"Ahri", "Zed", "Ahri", null, "Zed", "Lux", "Ñunu", "Lux", "Ahri", "Zed", "Lux"};
+
+  @Test
+  void roundTripsBatchesNullsAndDeltaDictionaries() throws IOException {
+    List<Object[]> expected = new ArrayList<>();
+    for (int r = 0; r < CHAMPIONS.length; r++) {
+      expected.add(new Object[] {
+          r == 3 ? null : "EUW1_" + r,
+          CHAMPIONS[r],
+          r == 6 ? null : r * 3 - 5,
+          r == 0 ? Long.MIN_VALUE : 1000L * r,
+          r == 7 ? null : r / 3.0,
+          r == 9 ? null : r % 3 == 0});
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ArrowStreamWriter w = new ArrowStreamWriter(bytes, COLUMNS, 4)) {
+      for (Object[] row : expected) {
+        w.writeString(0, (String) row[0]);
+        w.writeString(1, (String) row[1]);
+        if (row[2] == null) {
+          w.writeNull(2);
+        } else {
+          w.writeInt(2, (Integer) row[2]);
+        }
+        w.writeLong(3, (Long) row[3]);
+        if (row[4] == null) {
+          w.writeNull(4);
+        } else {
+          w.writeDouble(4, (Double) row[4]);
+        }
+        if (row[5] == null) {
+          w.writeNull(5);
+        } else {
+          w.writeBool(5, (Boolean) row[5]);
+        }
+        w.endRow();
+      }
+      assertEquals(expected.size(), w.rows());
+    }
+
+    List<Object[]> actual = new ArrayList<>();
+    List<Integer> batchSizes = new ArrayList<>();
+    try (RootAllocator allocator = new RootAllocator();
+         ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes.toByteArray()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(COLUMNS.size(), root.getSchema().getFields().size());
+      for (int i = 0; i < COLUMNS.size(); i++) {
+        assertEquals(COLUMNS.get(i).name(), root.getSchema().getFields().get(i).getName());
+      }
+      assertTrue(root.getSchema().getFields().get(1).getDictionary() != null);
+      assertEquals(new ArrowType.Int(32, true), root.getSchema().getFields().get(2).getType());
+      assertEquals(ArrowType.Bool.INSTANCE, root.getSchema().getFields().get(5).getType());
+
+      while (reader.loadNextBatch()) {
+        batchSizes.add(root.getRowCount());
+        long dictionaryId = root.getSchema().getFields().get(1).getDictionary().getId();
+        Dictionary dictionary = reader.getDictionaryVectors().get(dictionaryId);
+        FieldVector encoded = root.getVector(1);
+        try (ValueVector champions = DictionaryEncoder.decode(encoded, dictionary)) {
+          for (int i = 0; i < root.getRowCount(); i++) {
+            actual.add(new Object[] {
+                text(root.getVector(0).getObject(i)),
+                text(champions.getObject(i)),
+                root.getVector(2).getObject(i),
+                root.getVector(3).getObject(i),
+                root.getVector(4).getObject(i),
+                root.getVector(5).getObject(i)});
+          }
+        }
+      }
+    }
+
+    assertEquals(List.of(4, 4, 3), batchSizes);
+    assertEquals(expected.size(), actual.size());
+    for (int r = 0; r < expected.size(); r++) {
+      for (int c = 0; c < COLUMNS.size(); c++) {
+        assertEquals(expected.get(r)[c], actual.get(r)[c], "row " + r + ", column " + COLUMNS.get(c).name());
+      }
+    }
+  }
+
+  @Test
+  void emptyStreamHasSchemaAndNoBatches() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new ArrowStreamWriter(bytes, COLUMNS, 4).close();
+    try (RootAllocator allocator = new RootAllocator();
+         ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes.toByteArray()), allocator)) {
+      assertEquals(COLUMNS.size(), reader.getVectorSchemaRoot().getSchema().getFields().size());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  void flushesExactlyFullBatchOnce() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    List<Column> columns = List.of(new Column("kills", ColumnType.INT32));
+    try (ArrowStreamWriter w = new ArrowStreamWriter(bytes, columns, 2)) {
+      for (int r = 0; r < 4; r++) {
+        w.writeInt(0, r);
+        w.endRow();
+      }
+    }
+    List<Integer> batchSizes = new ArrayList<>();
+    try (RootAllocator allocator = new RootAllocator();
+         ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes.toByteArray()), allocator)) {
+      while (reader.loadNextBatch()) {
+        batchSizes.add(reader.getVectorSchemaRoot().getRowCount());
+      }
+    }
+    assertEquals(List.of(2, 2), batchSizes);
+  }
+
+  private static String text(Object value) {
+    return value == null ? null : value.toString();
+  }
+}
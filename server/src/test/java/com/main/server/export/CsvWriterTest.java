@@ -0,0 +1,102 @@
+package com.main.server.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+
+  @Test
+  void quotesFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+    assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\"cr\rlf\",,x\n", csv(w -> {
+      w.field("plain").field("a,b").field("say \"hi\"").field("two\nlines").field("cr\rlf").field((String) null).field("x");
+      w.endRow();
+    }));
+  }
+
+  @Test
+  void encodesNonAsciiTextAsUtf8() throws IOException {
+    assertEquals("Kai'Sa,Ñunu & Willump,카직스,\"é,🐉\",tab\there\n", csv(w -> {
+      w.field("Kai'Sa").field("Ñunu & Willump").field("카직스").field("é,🐉").field("tab\there");
+      w.endRow();
+    }));
+  }
+
+  @Test
+  void formatsLongsIncludingExtremes() throws IOException {
+    long[] values = {0, 7, -7, 10, -10, 1_000_000_007L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+    StringBuilder expected = new StringBuilder();
+    for (long v : values) {
+      expected.append(v).append('\n');
+    }
+    assertEquals(expected.toString(), csv(w -> {
+      for (long v : values) {
+        w.field(v);
+        w.endRow();
+      }
+    }));
+  }
+
+  @Test
+  void formatsBooleansAndDoubles() throws IOException {
+    assertEquals("true,false,0.1,-2.5,1.0E-7,NaN\n", csv(w -> {
+      w.field(true).field(false).field(0.1).field(-2.5).field(1e-7).field(Double.NaN);
+      w.endRow();
+    }));
+  }
+
+  @Test
+  void fieldsSpanningTheBufferBoundaryAreWrittenWhole() throws IOException {
+    // the smallest buffer, so numbers and multi-byte text keep crossing it
+    Random random = new Random(3);
+    StringBuilder expected = new StringBuilder();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CsvWriter w = new CsvWriter(bytes, 1)) {
+      for (int row = 0; row < 500; row++) {
+        long n = random.nextLong();
+        String s = row % 3 == 0 ? "Ñunu " + row : "item" + row;
+        w.field(n).field(s);
+        w.endRow();
+        expected.append(n).append(',').append(s).append('\n');
+      }
+    }
+    assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void flushSendsBufferedBytesAndCloseClosesTheStream() throws IOException {
+    boolean[] closed = {false};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed[0] = true;
+      }
+    };
+    CsvWriter w = new CsvWriter(bytes, 4096);
+    w.field("a");
+    w.endRow();
+    assertEquals(0, bytes.size());
+    w.flush();
+    assertEquals("a\n", bytes.toString(StandardCharsets.UTF_8));
+    w.close();
+    assertTrue(closed[0]);
+  }
+
+  private interface Rows {
+    void write(CsvWriter w) throws IOException;
+  }
+
+  private static String csv(Rows rows) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CsvWriter w = new CsvWriter(bytes, 64)) {
+      rows.write(w);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+}
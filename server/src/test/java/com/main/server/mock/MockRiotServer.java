@@ -0,0 +1,348 @@
+package com.main.server.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the Riot API and DDragon, for running the server offline.
+ *
+ * Serves the fixtures under {@code src/test/resources/riot-fixtures} with placeholders filled in per
+ * request: Riot ID lookups always resolve (except names starting with {@code missing}, which 404),
+ * every player has {@code idsPerPlayer} ranked matches, and each match has the requested player plus
+ * nine generated co-participants. Point the server at it with
+ *
+ * <pre>
+ * riot.api.base-url={baseUrl}/{region}
+ * riot.ddragon.base-url={baseUrl}/ddragon
+ * </pre>
+ *
+ * Latency, random 429s and Riot-style rate-limit headers are configurable, so the client-side limiter,
+ * scheduler and retry paths behave as they would against Riot.
+ */
+public class MockRiotServer implements AutoCloseable {
+  private static final String FIXTURES = "/riot-fixtures/";
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+    Thread t = new Thread(r, "mock-riot");
+    t.setDaemon(true);
+    return t;
+  });
+  private final Map<String, String> fixtures = new HashMap<>();
+  private final Map<String, List<String>> matchIdsByPuuid = new ConcurrentHashMap<>();
+  private final Map<String, String> ownerByMatchId = new ConcurrentHashMap<>();
+  private final AtomicLong nextMatchId = new AtomicLong(4_000_000_000L);
+  private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+  private final LongAdder rateLimited = new LongAdder();
+
+  private volatile long latencyMs;
+  private volatile long latencyJitterMs;
+  private volatile double tooManyRequestsRate;
+  private volatile int idsPerPlayer = 20;
+  private volatile long appLimit = 0;
+  private volatile long appWindowMs = 1000;
+  private long windowStart;
+  private long windowCount;
+
+  public MockRiotServer() throws IOException {
+    for (String name : List.of("account", "summoner", "league", "match", "timeline",
+                               "ddragon-versions", "ddragon-champion", "ddragon-item")) {
+      fixtures.put(name, load(name + ".json"));
+    }
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+  }
+
+  public MockRiotServer start() {
+    server.start();
+    return this;
+  }
+
+  public String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  /** Fixed delay plus a uniformly random extra of up to {@code jitterMs} before every response. */
+  public MockRiotServer latency(long latencyMs, long jitterMs) {
+    this.latencyMs = latencyMs;
+    this.latencyJitterMs = jitterMs;
+    return this;
+  }
+
+  /** Share of Riot API requests answered with a 429 regardless of the rate limit. */
+  public MockRiotServer tooManyRequestsRate(double rate) {
+    this.tooManyRequestsRate = rate;
+    return this;
+  }
+
+  /**
+   * Enforces an application limit of {@code limit} requests per {@code windowSeconds} and reports it
+   * through {@code X-App-Rate-Limit}/{@code X-App-Rate-Limit-Count}. {@code 0} disables the limit.
+   */
+  public MockRiotServer appRateLimit(long limit, long windowSeconds) {
+    this.appLimit = limit;
+    this.appWindowMs = windowSeconds * 1000;
+    return this;
+  }
+
+  public MockRiotServer idsPerPlayer(int idsPerPlayer) {
+    this.idsPerPlayer = idsPerPlayer;
+    return this;
+  }
+
+  /** Number of requests served so far for an endpoint, e.g. {@code "match"} or {@code "account"}. */
+  public long requests(String endpoint) {
+    LongAdder n = requests.get(endpoint);
+    return n == null ? 0 : n.sum();
+  }
+
+  public long rateLimited() {
+    return rateLimited.sum();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange ex) throws IOException {
+    try (ex) {
+      String path = ex.getRequestURI().getPath();
+      String[] p = path.substring(1).split("/");
+      for (int i = 0; i < p.length; i++) {
+        p[i] = URLDecoder.decode(p[i], StandardCharsets.UTF_8);
+      }
+      delay();
+
+      if (p[0].equals("ddragon")) {
+        serveDdragon(ex, path.substring("/ddragon".length()));
+        return;
+      }
+
+      // /{region}/...
+      Map<String, String> headers = new HashMap<>();
+      if (limited(headers)) {
+        send(ex, 429, "{\"status\":{\"message\":\"Rate limit exceeded\",\"status_code\":429}}", headers);
+        return;
+      }
+      String endpoint = route(p);
+      count(endpoint);
+      if (endpoint.equals("unknown")) {
+        send(ex, 404, "{\"status\":{\"message\":\"Not found\",\"status_code\":404}}", headers);
+        return;
+      }
+      if (tooManyRequestsRate > 0 && ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+        rateLimited.increment();
+        headers.put("Retry-After", "1");
+        headers.put("X-Rate-Limit-Type", "service");
+        send(ex, 429, "{\"status\":{\"message\":\"Rate limit exceeded\",\"status_code\":429}}", headers);
+        return;
+      }
+      String body = switch (endpoint) {
+        case "account-by-riot-id" -> riotIdLookup(p[6], p[7]);
+        case "account-by-puuid"   -> account(p[6], "Mock" + Math.floorMod(p[6].hashCode(), 10_000), "MOCK");
+        case "summoner"           -> fixtures.get("summoner").replace("{{PUUID}}", p[6]);
+        case "league"             -> fixtures.get("league").replace("{{PUUID}}", p[6]);
+        case "match-ids"          -> matchIds(p[6], ex.getRequestURI().getQuery());
+        case "match"              -> match(p[5], "match");
+        case "timeline"           -> match(p[5], "timeline");
+        default                   -> null;
+      };
+      if (body == null) {
+        send(ex, 404, "{\"status\":{\"message\":\"Data not found\",\"status_code\":404}}", headers);
+      } else {
+        send(ex, 200, body, headers);
+      }
+    }
+  }
+
+  private static String route(String[] p) {
+    if (p.length == 8 && p[1].equals("riot") && p[5].equals("by-riot-id")) return "account-by-riot-id";
+    if (p.length == 7 && p[1].equals("riot") && p[5].equals("by-puuid"))   return "account-by-puuid";
+    if (p.length == 7 && p[2].equals("summoner"))                          return "summoner";
+    if (p.length == 7 && p[2].equals("league"))                            return "league";
+    if (p.length == 8 && p[2].equals("match") && p[7].equals("ids"))       return "match-ids";
+    if (p.length == 7 && p[2].equals("match") && p[6].equals("timeline"))  return "timeline";
+    if (p.length == 6 && p[2].equals("match"))                             return "match";
+    return "unknown";
+  }
+
+  private String riotIdLookup(String gameName, String tagLine) {
+    if (gameName.toLowerCase(Locale.ROOT).startsWith("missing")) {
+      return null;
+    }
+    String puuid = "mock-" + gameName.toLowerCase(Locale.ROOT).replace(' ', '-') + "-" + tagLine.toLowerCase(Locale.ROOT);
+    return account(puuid, gameName, tagLine);
+  }
+
+  private String account(String puuid, String gameName, String tagLine) {
+    return fixtures.get("account")
+      .replace("{{PUUID}}", puuid)
+      .replace("{{GAME_NAME}}", gameName)
+      .replace("{{TAG_LINE}}", tagLine);
+  }
+
+  private String matchIds(String puuid, String query) {
+    Map<String, String> params = query(query);
+    if (params.containsKey("startTime")) {
+      // incremental sync: nothing played since
+      return "[]";
+    }
+    List<String> ids = matchIdsByPuuid.computeIfAbsent(puuid, k -> {
+      List<String> out = new ArrayList<>(idsPerPlayer);
+      for (int i = 0; i < idsPerPlayer; i++) {
+        String id = "NA1_" + nextMatchId.getAndIncrement();
+        ownerByMatchId.put(id, k);
+        out.add(id);
+      }
+      return out;
+    });
+    int count = Math.min(ids.size(), Integer.parseInt(params.getOrDefault("count", "20")));
+    if (params.containsKey("endTime")) {
+      // history paging: the mock player has no games before their latest page
+      return "[]";
+    }
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      sb.append(i == 0 ? "\"" : ",\"").append(ids.get(i)).append('"');
+    }
+    return sb.append(']').toString();
+  }
+
+  private String match(String matchId, String fixture) {
+    String owner = ownerByMatchId.getOrDefault(matchId, "mock-owner-" + matchId);
+    long index = Math.floorMod(matchId.hashCode(), 1000);
+    String body = fixtures.get(fixture)
+      .replace("{{MATCH_ID}}", matchId)
+      .replace("{{GAME_START}}", Long.toString(System.currentTimeMillis() - index * 3_600_000L))
+      .replace("{{PUUID_0}}", owner)
+      .replace("{{NAME_0}}", "Owner");
+    for (int i = 1; i < 10; i++) {
+      body = body.replace("{{PUUID_" + i + "}}", "mock-" + matchId + "-" + i)
+                 .replace("{{NAME_" + i + "}}", "Player" + i);
+    }
+    return body;
+  }
+
+  private void serveDdragon(HttpExchange ex, String path) throws IOException {
+    count("ddragon");
+    String body;
+    if (path.equals("/api/versions.json")) {
+      body = fixtures.get("ddragon-versions");
+    } else if (path.endsWith("/data/en_US/champion.json")) {
+      body = fixtures.get("ddragon-champion");
+    } else if (path.endsWith("/data/en_US/item.json")) {
+      body = fixtures.get("ddragon-item");
+    } else {
+      body = null;
+    }
+    if (body == null) {
+      send(ex, 404, "Not Found", Map.of());
+    } else {
+      send(ex, 200, body, Map.of());
+    }
+  }
+
+  /**
+   * Applies the configured application limit, filling in the rate-limit headers.
+   *
+   * @return whether the request is over the limit and must be answered with a 429
+   */
+  private boolean limited(Map<String, String> headers) {
+    if (appLimit <= 0) {
+      return false;
+    }
+    long count;
+    long retryAfterMs;
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      if (now >= windowStart + appWindowMs) {
+        windowStart = now;
+        windowCount = 0;
+      }
+      count = ++windowCount;
+      retryAfterMs = windowStart + appWindowMs - now;
+    }
+    long windowSeconds = appWindowMs / 1000;
+    headers.put("X-App-Rate-Limit", appLimit + ":" + windowSeconds);
+    headers.put("X-App-Rate-Limit-Count", Math.min(count, appLimit) + ":" + windowSeconds);
+    if (count <= appLimit) {
+      return false;
+    }
+    rateLimited.increment();
+    headers.put("Retry-After", Long.toString(Math.max(1, (retryAfterMs + 999) / 1000)));
+    headers.put("X-Rate-Limit-Type", "application");
+    return true;
+  }
+
+  private void delay() {
+    long ms = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+    if (ms > 0) {
+      try {
+        Thread.sleep(ms);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void count(String endpoint) {
+    requests.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+  }
+
+  private static void send(HttpExchange ex, int status, String body, Map<String, String> headers) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    ex.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+    headers.forEach((k, v) -> ex.getResponseHeaders().set(k, v));
+    ex.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = ex.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static Map<String, String> query(String query) {
+    Map<String, String> out = new HashMap<>();
+    if (query == null) {
+      return out;
+    }
+    for (String pair : query.split("&")) {
+      int eq = pair.indexOf('=');
+      if (eq > 0) {
+        out.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+      }
+    }
+    return out;
+  }
+
+  private static String load(String name) {
+    try (InputStream in = MockRiotServer.class.getResourceAsStream(FIXTURES + name)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing fixture " + FIXTURES + name);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.main.server.riot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RiotCircuitBreakerTest {
+
+  private static final String REGION = "euw1";
+  private static final long OPEN_MS = 50;
+
+  @Test
+  void opensOnceTheFailureRateIsReached() {
+    RiotCircuitBreaker breaker = new RiotCircuitBreaker(10, 4, 0.5, 60_000);
+    for (int i = 0; i < 3; i++) {
+      breaker.onFailure(REGION, breaker.tryAcquire(REGION));
+    }
+    assertEquals("closed", state(breaker));
+    breaker.onFailure(REGION, breaker.tryAcquire(REGION));
+    assertEquals("open", state(breaker));
+    assertFalse(breaker.tryAcquire(REGION).granted());
+    assertTrue(breaker.openFor(REGION) > 0);
+  }
+
+  @Test
+  void onlyTheProbeClosesTheCircuit() throws InterruptedException {
+    RiotCircuitBreaker breaker = new RiotCircuitBreaker(4, 2, 0.5, OPEN_MS);
+    RiotCircuitBreaker.Permit early = breaker.tryAcquire(REGION);
+    RiotCircuitBreaker.Permit stale = breaker.tryAcquire(REGION);
+    open(breaker);
+    Thread.sleep(OPEN_MS + 10);
+
+    RiotCircuitBreaker.Permit probe = breaker.tryAcquire(REGION);
+    assertTrue(probe.granted());
+    assertFalse(breaker.tryAcquire(REGION).granted(), "only one probe at a time");
+
+    // late answers to calls sent while the circuit was still closed
+    breaker.onSuccess(REGION, early);
+    breaker.onFailure(REGION, stale);
+    assertEquals("half_open", state(breaker));
+
+    breaker.onSuccess(REGION, probe);
+    assertEquals("closed", state(breaker));
+    assertTrue(breaker.tryAcquire(REGION).granted());
+  }
+
+  @Test
+  void failedProbeReopensAndCannotReportTwice() throws InterruptedException {
+    RiotCircuitBreaker breaker = new RiotCircuitBreaker(4, 2, 0.5, OPEN_MS);
+    open(breaker);
+    Thread.sleep(OPEN_MS + 10);
+
+    RiotCircuitBreaker.Permit probe = breaker.tryAcquire(REGION);
+    breaker.onFailure(REGION, probe);
+    assertEquals("open", state(breaker));
+    Thread.sleep(OPEN_MS + 10);
+
+    RiotCircuitBreaker.Permit next = breaker.tryAcquire(REGION);
+    assertTrue(next.granted());
+    // the first probe's outcome was already counted
+    breaker.onSuccess(REGION, probe);
+    assertEquals("half_open", state(breaker));
+    breaker.onFailure(REGION, next);
+    assertEquals("open", state(breaker));
+  }
+
+  private static void open(RiotCircuitBreaker breaker) {
+    breaker.onFailure(REGION, breaker.tryAcquire(REGION));
+    breaker.onFailure(REGION, breaker.tryAcquire(REGION));
+    assertEquals("open", state(breaker));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String state(RiotCircuitBreaker breaker) {
+    return (String) ((Map<String, Object>) breaker.stats().get(REGION)).get("state");
+  }
+}
@@ -0,0 +1,96 @@
+package com.main.server.riot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpHeaders;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RiotRateLimiterTest {
+
+  private static final String REGION = "euw1";
+  private static final String MATCH = "/lol/match/v5/matches/{id}";
+  private static final String ACCOUNT = "/riot/account/v1/accounts/by-puuid/{puuid}";
+
+  @Test
+  void parsesLimitHeaders() {
+    List<long[]> limits = RiotRateLimiter.parse("20:1, 100:120");
+    assertEquals(2, limits.size());
+    assertEquals(20, limits.get(0)[0]);
+    assertEquals(1, limits.get(0)[1]);
+    assertEquals(100, limits.get(1)[0]);
+    assertEquals(120, limits.get(1)[1]);
+  }
+
+  @Test
+  void appliesConfiguredDefaultsBeforeAnyResponse() {
+    RiotRateLimiter limiter = new RiotRateLimiter("2:10");
+    assertEquals(0, limiter.tryAcquire(REGION, MATCH, 1.0));
+    assertEquals(0, limiter.tryAcquire(REGION, ACCOUNT, 1.0));
+    assertWaits(limiter.tryAcquire(REGION, MATCH, 1.0), 10_000);
+    // regions are limited independently
+    assertEquals(0, limiter.tryAcquire("kr", MATCH, 1.0));
+  }
+
+  @Test
+  void learnsAppWindowsAndCountsFromHeaders() {
+    RiotRateLimiter limiter = new RiotRateLimiter("100:1");
+    limiter.update(REGION, MATCH, response(Map.of(
+        "X-App-Rate-Limit", "100:1,5:60",
+        "X-App-Rate-Limit-Count", "1:1,5:60")));
+    // another process already used the whole 60s window
+    assertWaits(limiter.tryAcquire(REGION, ACCOUNT, 1.0), 60_000);
+  }
+
+  @Test
+  void learnsMethodWindowsPerEndpoint() {
+    RiotRateLimiter limiter = new RiotRateLimiter("100:1");
+    limiter.update(REGION, MATCH, response(Map.of(
+        "X-Method-Rate-Limit", "2:10",
+        "X-Method-Rate-Limit-Count", "1:10")));
+    assertEquals(0, limiter.tryAcquire(REGION, MATCH, 1.0));
+    assertWaits(limiter.tryAcquire(REGION, MATCH, 1.0), 10_000);
+    assertEquals(0, limiter.tryAcquire(REGION, ACCOUNT, 1.0));
+  }
+
+  @Test
+  void ceilingReservesTheRestOfTheWindow() {
+    RiotRateLimiter limiter = new RiotRateLimiter("10:10");
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, limiter.tryAcquire(REGION, MATCH, 0.5));
+    }
+    assertWaits(limiter.tryAcquire(REGION, MATCH, 0.5), 10_000);
+    assertEquals(0, limiter.tryAcquire(REGION, MATCH, 1.0));
+  }
+
+  @Test
+  void applicationRateLimitBlocksTheWholeRegion() {
+    RiotRateLimiter limiter = new RiotRateLimiter("100:1");
+    limiter.onRateLimited(REGION, MATCH, 5, "application");
+    assertWaits(limiter.tryAcquire(REGION, MATCH, 1.0), 5_000);
+    assertWaits(limiter.tryAcquire(REGION, ACCOUNT, 1.0), 5_000);
+    assertEquals(0, limiter.tryAcquire("kr", MATCH, 1.0));
+  }
+
+  @Test
+  void methodRateLimitBlocksOnlyThatEndpoint() {
+    RiotRateLimiter limiter = new RiotRateLimiter("100:1");
+    limiter.onRateLimited(REGION, MATCH, 5, "method");
+    assertWaits(limiter.tryAcquire(REGION, MATCH, 1.0), 5_000);
+    assertEquals(0, limiter.tryAcquire(REGION, ACCOUNT, 1.0));
+  }
+
+  private static void assertWaits(long waitMs, long atMostMs) {
+    assertTrue(waitMs > 0 && waitMs <= atMostMs, "expected a wait in (0, " + atMostMs + "] ms but got " + waitMs);
+  }
+
+  private static RiotResponse response(Map<String, String> headers) {
+    Map<String, List<String>> values = new HashMap<>();
+    headers.forEach((k, v) -> values.put(k, List.of(v)));
+    return new RiotResponse(200, HttpHeaders.of(values, (k, v) -> true), new byte[0]);
+  }
+}
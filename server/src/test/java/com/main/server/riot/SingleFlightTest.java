@@ -0,0 +1,89 @@
+package com.main.server.riot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  @Test
+  void concurrentCallersShareOneCall() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ZERO, 10);
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    CompletableFuture<String> first = flight.execute("a", () -> {
+      calls.incrementAndGet();
+      return pending;
+    });
+    CompletableFuture<String> second = flight.execute("a", () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("other");
+    });
+
+    assertSame(first, second);
+    pending.complete("value");
+    assertEquals("value", second.join());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void differentKeysDoNotShare() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ZERO, 10);
+    CompletableFuture<String> a = flight.execute("a", CompletableFuture::new);
+    CompletableFuture<String> b = flight.execute("b", CompletableFuture::new);
+    assertTrue(a != b);
+  }
+
+  @Test
+  void callsAgainOnceCompletedWithoutResultCache() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ZERO, 10);
+    AtomicInteger calls = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      flight.execute("a", () -> CompletableFuture.completedFuture("v" + calls.incrementAndGet())).join();
+    }
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void reusesResultsWithinTtl() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMinutes(1), 10);
+    AtomicInteger calls = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      assertEquals("v1", flight.execute("a", () -> CompletableFuture.completedFuture("v" + calls.incrementAndGet())).join());
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void failuresAreSharedButNotCached() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMinutes(1), 10);
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("a", () -> pending);
+    CompletableFuture<String> second = flight.execute("a", () -> CompletableFuture.completedFuture("unused"));
+    pending.completeExceptionally(new IllegalStateException("boom"));
+
+    assertThrows(CompletionException.class, first::join);
+    assertThrows(CompletionException.class, second::join);
+    assertEquals("retried", flight.execute("a", () -> CompletableFuture.completedFuture("retried")).join());
+  }
+
+  @Test
+  void callThatThrowsFailsTheFutureAndReleasesTheKey() {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ZERO, 10);
+    CompletableFuture<String> failed = flight.execute("a", () -> {
+      throw new IllegalArgumentException("bad key");
+    });
+    CompletionException e = assertThrows(CompletionException.class, failed::join);
+    assertTrue(e.getCause() instanceof IllegalArgumentException);
+    assertEquals("ok", flight.execute("a", () -> CompletableFuture.completedFuture("ok")).join());
+  }
+}
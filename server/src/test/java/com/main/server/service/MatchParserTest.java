@@ -0,0 +1,112 @@
+package com.main.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.server.model.Match;
+import com.main.server.model.PlayerBuild;
+
+class MatchParserTest {
+
+  private static final String MATCH_ID = "EUW1_7000000001";
+  private static final long GAME_START = 1_700_000_000_000L;
+
+  // no DDragon data loaded, so every role is "Unknown"
+  private final MatchParser parser = new MatchParser(new ChampionService());
+
+  @Test
+  void parsesFixtureLikeAFullJsonParse() throws IOException {
+    byte[] json = fixture();
+    JsonNode info = new ObjectMapper().readTree(json).path("info");
+    JsonNode participants = info.path("participants");
+
+    MatchParser.Result result = parser.parse(json, puuid -> true);
+
+    assertEquals(participants.size(), result.getMatches().size());
+    assertEquals(participants.size(), result.getBuilds().size());
+    for (int i = 0; i < participants.size(); i++) {
+      JsonNode p = participants.get(i);
+      Match m = result.getMatches().get(i);
+      assertEquals(MATCH_ID, m.getMatchId());
+      assertEquals("puuid-" + i, m.getPuuid());
+      assertEquals(GAME_START, m.getGameStartTimestamp());
+      assertEquals(info.path("gameDuration").asLong(), m.getGameDuration());
+      assertEquals(info.path("gameMode").asText(), m.getGameMode());
+      assertEquals(info.path("queueId").asInt(), m.getQueueId());
+      assertEquals(p.path("championName").asText(), m.getChampionName());
+      assertEquals(p.path("championId").asText(), m.getChampionId());
+      assertEquals(p.path("teamPosition").asText(), m.getTeamPosition());
+      assertEquals(p.path("win").asBoolean(), m.isWin());
+      assertEquals(p.path("kills").asInt(), m.getKills());
+      assertEquals(p.path("deaths").asInt(), m.getDeaths());
+      assertEquals(p.path("assists").asInt(), m.getAssists());
+      assertEquals((p.path("kills").asInt() + p.path("assists").asInt()) / Math.max(1.0, p.path("deaths").asInt()),
+          m.getKda(), 1e-9);
+      double cs = p.path("totalMinionsKilled").asInt() + p.path("neutralMinionsKilled").asInt();
+      assertEquals(cs / (info.path("gameDuration").asLong() / 60.0), m.getCsPerMin(), 1e-9);
+      assertEquals("Unknown", m.getRole());
+
+      PlayerBuild b = result.getBuilds().get(i);
+      assertEquals(MATCH_ID, b.getMatchId());
+      assertEquals(m.getPuuid(), b.getPuuid());
+      int[] items = {b.getItem0(), b.getItem1(), b.getItem2(), b.getItem3(), b.getItem4(), b.getItem5(), b.getItem6()};
+      for (int slot = 0; slot < items.length; slot++) {
+        assertEquals(p.path("item" + slot).asInt(), items[slot], "item" + slot + " of participant " + i);
+      }
+    }
+  }
+
+  @Test
+  void keepsOnlyWantedParticipantsInOrder() throws IOException {
+    MatchParser.Result result = parser.parse(fixture(), Set.of("puuid-7", "puuid-2")::contains);
+
+    assertEquals(List.of("puuid-2", "puuid-7"), result.getMatches().stream().map(Match::getPuuid).toList());
+    assertEquals(List.of("puuid-2", "puuid-7"), result.getBuilds().stream().map(PlayerBuild::getPuuid).toList());
+  }
+
+  @Test
+  void appliesGameFieldsThatFollowTheParticipants() throws IOException {
+    String json = """
+        {"info": {"participants": [{"puuid": "p1", "totalMinionsKilled": 200, "neutralMinionsKilled": 40,
+                                    "perks": {"styles": [{"selections": []}]}}],
+                  "gameDuration": 1200, "queueId": 420, "gameMode": "CLASSIC"},
+         "metadata": {"participants": ["p1"], "matchId": "NA1_1"}}
+        """;
+
+    Match m = parser.parse(json.getBytes(StandardCharsets.UTF_8), puuid -> true).getMatches().get(0);
+
+    assertEquals("NA1_1", m.getMatchId());
+    assertEquals(1200, m.getGameDuration());
+    assertEquals(420, m.getQueueId());
+    assertEquals("CLASSIC", m.getGameMode());
+    assertEquals(12.0, m.getCsPerMin(), 1e-9);
+  }
+
+  @Test
+  void rejectsNonObjectPayload() {
+    assertThrows(IOException.class, () -> parser.parse("[]".getBytes(StandardCharsets.UTF_8), puuid -> true));
+  }
+
+  /** The mock server's match fixture, with its placeholders filled in. */
+  private byte[] fixture() throws IOException {
+    String body;
+    try (InputStream in = getClass().getResourceAsStream("/riot-fixtures/match.json")) {
+      body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    body = body.replace("{{MATCH_ID}}", MATCH_ID).replace("{{GAME_START}}", Long.toString(GAME_START));
+    for (int i = 0; i < 10; i++) {
+      body = body.replace("{{PUUID_" + i + "}}", "puuid-" + i).replace("{{NAME_" + i + "}}", "Player" + i);
+    }
+    return body.getBytes(StandardCharsets.UTF_8);
+  }
+}
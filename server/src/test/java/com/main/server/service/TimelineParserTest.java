@@ -0,0 +1,99 @@
+package com.main.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.server.model.MatchTimeline;
+
+class TimelineParserTest {
+
+  private final TimelineParser parser = new TimelineParser();
+
+  @Test
+  void parsesFixtureLikeAFullJsonParse() throws IOException {
+    byte[] json;
+    try (InputStream in = getClass().getResourceAsStream("/riot-fixtures/timeline.json")) {
+      json = in.readAllBytes();
+    }
+    JsonNode doc = new ObjectMapper().readTree(json);
+    JsonNode puuids = doc.path("metadata").path("participants");
+    JsonNode frames = doc.path("info").path("frames");
+
+    List<MatchTimeline> timelines = parser.parse(json);
+
+    assertEquals(puuids.size(), timelines.size());
+    for (int i = 0; i < timelines.size(); i++) {
+      MatchTimeline t = timelines.get(i);
+      assertEquals(doc.path("metadata").path("matchId").asText(), t.getMatchId());
+      assertEquals(puuids.get(i).asText(), t.getPuuid());
+      assertEquals(i + 1, t.getParticipantId());
+      assertEquals(doc.path("info").path("frameInterval").asInt(), t.getFrameIntervalMs());
+      int[] gold = new int[frames.size()];
+      int[] xp = new int[frames.size()];
+      int[] cs = new int[frames.size()];
+      for (int f = 0; f < frames.size(); f++) {
+        JsonNode pf = frames.get(f).path("participantFrames").path(String.valueOf(i + 1));
+        gold[f] = pf.path("totalGold").asInt();
+        xp[f] = pf.path("xp").asInt();
+        cs[f] = pf.path("minionsKilled").asInt() + pf.path("jungleMinionsKilled").asInt();
+      }
+      assertArrayEquals(gold, t.getGold(), "gold of participant " + (i + 1));
+      assertArrayEquals(xp, t.getXp(), "xp of participant " + (i + 1));
+      assertArrayEquals(cs, t.getCs(), "cs of participant " + (i + 1));
+    }
+  }
+
+  @Test
+  void growsPastInitialCapacityAndSkipsUnknownContent() throws IOException {
+    int frameCount = 150;
+    StringBuilder json = new StringBuilder("""
+        {"unknown": {"nested": [1, 2, {"a": null}]},
+         "metadata": {"dataVersion": "2", "matchId": "EUW1_1", "participants": ["p1", "p2"]},
+         "info": {"frameInterval": 30000, "frames": [""");
+    for (int f = 0; f < frameCount; f++) {
+      if (f > 0) {
+        json.append(',');
+      }
+      json.append("""
+          {"events": [{"type": "ITEM_PURCHASED", "position": {"x": 1, "y": 2}}],
+           "participantFrames": {
+             "2": {"championStats": {"armor": 5}, "totalGold": %d, "xp": %d, "minionsKilled": %d, "jungleMinionsKilled": 1},
+             "1": {"totalGold": %d, "xp": 0, "minionsKilled": 0, "jungleMinionsKilled": %d},
+             "11": {"totalGold": 99}},
+           "timestamp": %d}""".formatted(f * 10, f * 20, f, 500 + f, f * 2, f * 30000));
+    }
+    json.append("]}}");
+
+    List<MatchTimeline> timelines = parser.parse(json.toString().getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(2, timelines.size());
+    MatchTimeline p1 = timelines.get(0);
+    MatchTimeline p2 = timelines.get(1);
+    assertEquals("EUW1_1", p1.getMatchId());
+    assertEquals("p2", p2.getPuuid());
+    assertEquals(30000, p2.getFrameIntervalMs());
+    assertEquals(frameCount, p1.getGold().length);
+    for (int f = 0; f < frameCount; f++) {
+      assertEquals(500 + f, p1.getGold()[f]);
+      assertEquals(f * 2, p1.getCs()[f]);
+      assertEquals(f * 10, p2.getGold()[f]);
+      assertEquals(f * 20, p2.getXp()[f]);
+      assertEquals(f + 1, p2.getCs()[f]);
+    }
+  }
+
+  @Test
+  void rejectsNonObjectPayload() {
+    assertThrows(IOException.class, () -> parser.parse("[]".getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,92 @@
+package com.main.server.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Feeds synthetic builds through the counter in place of the database cursor and compares the result
+ * with a plain HashMap count.
+ */
+class BuildSlotCounterTest {
+
+  private static final int SLOTS = 7;
+
+  @ParameterizedTest
+  @CsvSource({
+      "0, 1",
+      "1, 1",
+      "8191, 2",
+      "8192, 2",
+      "8193, 2",
+      "24581, 4",
+      "2000000, 4"})
+  void matchesHashMapReference(int builds, int parallelism) {
+    Random random = new Random(builds);
+    String[] names = new String[builds];
+    boolean[] wins = new boolean[builds];
+    int[][] items = new int[builds][SLOTS];
+    Map<String, long[]> expected = new HashMap<>();
+    for (int i = 0; i < builds; i++) {
+      names[i] = "Champion" + random.nextInt(170);
+      wins[i] = random.nextBoolean();
+      // every fourth slot empty, and some builds with no items at all
+      boolean empty = random.nextInt(50) == 0;
+      for (int s = 0; s < SLOTS; s++) {
+        int item = empty || random.nextInt(4) == 0 ? 0 : 3000 + random.nextInt(300);
+        items[i][s] = item;
+        if (item != 0) {
+          long[] e = expected.computeIfAbsent(names[i] + "/" + item, k -> new long[2]);
+          e[0] += wins[i] ? 1 : 0;
+          e[1]++;
+        }
+      }
+    }
+
+    BuildSlotCounter.Result result = new BuildSlotCounter(parallelism, 1000).count(cursor(names, wins, items));
+
+    assertEquals(builds, result.builds());
+    assertEquals(expected.size(), result.counts().size());
+    for (long key : result.counts().sortedKeys()) {
+      String pair = result.champions().get(CounterTable.high(key)) + "/" + CounterTable.low(key);
+      long[] e = expected.get(pair);
+      assertEquals(e[0], result.counts().wins(key), "wins of " + pair);
+      assertEquals(e[1], result.counts().games(key), "games of " + pair);
+    }
+  }
+
+  /** A JdbcTemplate whose only query replays the given rows in the counter's column order. */
+  private static JdbcTemplate cursor(String[] names, boolean[] wins, int[][] items) {
+    int[] row = {-1};
+    ResultSet rs = (ResultSet) Proxy.newProxyInstance(BuildSlotCounterTest.class.getClassLoader(),
+        new Class<?>[] {ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "getString" -> names[row[0]];
+          case "getBoolean" -> wins[row[0]];
+          case "getInt" -> items[row[0]][(Integer) args[0] - 3];
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+    return new JdbcTemplate() {
+      @Override
+      public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+        try {
+          for (row[0] = 0; row[0] < names.length; row[0]++) {
+            rch.processRow(rs);
+          }
+        } catch (SQLException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,74 @@
+package com.main.server.stats;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CounterTableTest {
+
+  @Test
+  void packsAndUnpacksKeys() {
+    long key = CounterTable.key(169, 3078);
+    assertEquals(169, CounterTable.high(key));
+    assertEquals(3078, CounterTable.low(key));
+    assertEquals(Integer.MAX_VALUE, CounterTable.low(CounterTable.key(0, Integer.MAX_VALUE)));
+  }
+
+  @Test
+  void growsPastItsInitialCapacityWithoutLosingCounts() {
+    CounterTable table = new CounterTable(1);
+    Map<Long, long[]> expected = new HashMap<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 50_000; i++) {
+      long key = CounterTable.key(random.nextInt(200), 1000 + random.nextInt(500));
+      long won = random.nextInt(2);
+      table.add(key, won, 1);
+      long[] e = expected.computeIfAbsent(key, k -> new long[2]);
+      e[0] += won;
+      e[1]++;
+    }
+    assertMatches(expected, table);
+  }
+
+  @Test
+  void addAllMergesOverlappingTables() {
+    CounterTable a = new CounterTable(4);
+    CounterTable b = new CounterTable(4);
+    Map<Long, long[]> expected = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      long key = CounterTable.key(i % 37, i % 101);
+      CounterTable target = i % 2 == 0 ? a : b;
+      target.add(key, i % 3 == 0 ? 1 : 0, 1);
+      long[] e = expected.computeIfAbsent(key, k -> new long[2]);
+      e[0] += i % 3 == 0 ? 1 : 0;
+      e[1]++;
+    }
+    CounterTable total = new CounterTable(16);
+    total.addAll(a);
+    total.addAll(b);
+    assertMatches(expected, total);
+  }
+
+  @Test
+  void missingKeysCountZero() {
+    CounterTable table = new CounterTable(16);
+    table.add(CounterTable.key(1, 2), 1, 1);
+    assertEquals(0, table.wins(CounterTable.key(2, 1)));
+    assertEquals(0, table.games(CounterTable.key(2, 1)));
+  }
+
+  static void assertMatches(Map<Long, long[]> expected, CounterTable actual) {
+    assertEquals(expected.size(), actual.size());
+    long[] keys = expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    assertArrayEquals(keys, actual.sortedKeys());
+    for (long key : keys) {
+      assertEquals(expected.get(key)[0], actual.wins(key), "wins of " + key);
+      assertEquals(expected.get(key)[1], actual.games(key), "games of " + key);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.main.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FingerprintSetTest {
+
+  private static final int CAPACITY = 16;
+
+  @Test
+  void addReportsWhetherTheKeyWasNew() {
+    FingerprintSet set = new FingerprintSet(CAPACITY);
+    long fp = FingerprintSet.fingerprint("EUW1_1");
+    assertFalse(set.contains(fp));
+    assertTrue(set.add(fp));
+    assertTrue(set.contains(fp));
+    assertFalse(set.add(fp));
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  void keepsTheLastGenerationAcrossOneRotation() {
+    FingerprintSet set = new FingerprintSet(CAPACITY);
+    addRange(set, 0, CAPACITY);
+    // fills the current generation; the next add rotates it into the previous one
+    assertTrue(set.add(key(CAPACITY)));
+    for (int i = 0; i <= CAPACITY; i++) {
+      assertTrue(set.contains(key(i)), "key " + i);
+    }
+    assertEquals(CAPACITY + 1, set.size());
+  }
+
+  @Test
+  void forgetsKeysAfterTwoRotations() {
+    FingerprintSet set = new FingerprintSet(CAPACITY);
+    addRange(set, 0, CAPACITY);
+    addRange(set, CAPACITY, 2 * CAPACITY);
+    assertTrue(set.add(key(2 * CAPACITY)));
+    for (int i = 0; i < CAPACITY; i++) {
+      assertFalse(set.contains(key(i)), "key " + i);
+    }
+    for (int i = CAPACITY; i <= 2 * CAPACITY; i++) {
+      assertTrue(set.contains(key(i)), "key " + i);
+    }
+    // a forgotten key counts as new again
+    assertTrue(set.add(key(0)));
+  }
+
+  @Test
+  void reAddingAnOldKeyCarriesItIntoTheNextGeneration() {
+    FingerprintSet set = new FingerprintSet(CAPACITY);
+    addRange(set, 0, CAPACITY);
+    set.add(key(CAPACITY));
+    // only held by the previous generation: not new, but refreshed
+    assertFalse(set.add(key(0)));
+    addRange(set, CAPACITY + 1, 2 * CAPACITY + 1);
+    assertTrue(set.contains(key(0)));
+    assertFalse(set.contains(key(1)));
+  }
+
+  @Test
+  void compositeFingerprintsKeepTheKeyBoundary() {
+    assertNotEquals(FingerprintSet.fingerprint("ab", "c"), FingerprintSet.fingerprint("a", "bc"));
+    assertNotEquals(FingerprintSet.fingerprint("abc"), FingerprintSet.fingerprint("ab", "c"));
+    assertEquals(FingerprintSet.fingerprint("EUW1_1", "puuid"), FingerprintSet.fingerprint("EUW1_1", "puuid"));
+    // 0 marks an empty slot, so it is never produced
+    assertNotEquals(0L, FingerprintSet.fingerprint(""));
+  }
+
+  private static void addRange(FingerprintSet set, int from, int to) {
+    for (int i = from; i < to; i++) {
+      assertTrue(set.add(key(i)), "key " + i);
+    }
+  }
+
+  private static long key(int i) {
+    return FingerprintSet.fingerprint("EUW1_" + i);
+  }
+}
@@ -0,0 +1,46 @@
+package com.main.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PackedIntsTest {
+
+  @Test
+  void roundTripsEmptySeries() {
+    assertEquals(0, PackedInts.pack(new int[0]).length);
+    assertArrayEquals(new int[0], PackedInts.unpack(new byte[0]));
+  }
+
+  @Test
+  void roundTripsExtremesAndSignChanges() {
+    int[] values = {0, -1, 1, 63, 64, -64, -65, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    assertArrayEquals(values, PackedInts.unpack(PackedInts.pack(values)));
+  }
+
+  @Test
+  void roundTripsRandomSeries() {
+    Random random = new Random(42);
+    for (int n = 1; n < 200; n++) {
+      int[] values = new int[n];
+      for (int i = 0; i < n; i++) {
+        values[i] = random.nextInt();
+      }
+      assertArrayEquals(values, PackedInts.unpack(PackedInts.pack(values)));
+    }
+  }
+
+  @Test
+  void smallStepsTakeOneBytePerValue() {
+    // gold per minute: a start value, then steps under 64 in either direction
+    int[] values = new int[40];
+    for (int i = 1; i < values.length; i++) {
+      values[i] = values[i - 1] + (i % 2 == 0 ? 63 : -20);
+    }
+    assertEquals(values.length, PackedInts.pack(values).length);
+    assertArrayEquals(values, PackedInts.unpack(PackedInts.pack(values)));
+  }
+}